@@ -0,0 +1,81 @@
+package com.group16.tetris.benchmarks;
+
+import com.group16.tetris.models.BitBoard;
+import com.group16.tetris.models.BlockModel;
+import com.group16.tetris.models.BoardFeatures;
+import com.group16.tetris.models.GameEngine;
+import com.group16.tetris.models.PieceMask;
+import com.group16.tetris.models.PieceRotation;
+import com.group16.tetris.models.PieceSequence;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+// Boards shared by the benchmarks: the smallest, default and largest field sizes the configuration allows, each filled
+// from the bottom to a given fraction of its height with one gap per row, the way a stack builds up during a game
+@State(Scope.Benchmark)
+public class BoardState {
+
+    @Param({"5x15", "10x20", "15x30"})
+    public String size;
+
+    @Param({"0.0", "0.3", "0.6"})
+    public double density;
+
+    public int width;
+    public int height;
+    public boolean[][] cells;
+    public BitBoard board;
+    public BlockModel block;
+    public BlockModel nextBlock;
+    public PieceMask piece;
+    public PieceRotation currentPiece;
+    public PieceRotation nextPiece;
+    public BoardFeatures features;
+
+    // Column the piece is tested at, and the lowest row its top fits in there, as GameEngine places pieces
+    public int pieceX;
+    public int pieceY;
+
+    // The same position as TetrisAI takes it, by the piece's bottom row
+    public int aiPieceY;
+
+    @Setup
+    public void setUp() {
+        String[] dimensions = size.split("x");
+        width = Integer.parseInt(dimensions[0]);
+        height = Integer.parseInt(dimensions[1]);
+
+        // Fixed seed, so every run benchmarks the same boards
+        Random random = new Random(16);
+        cells = new boolean[height][width];
+        int filledRows = (int) Math.round(height * density);
+        for (int i = height - filledRows; i < height; i++) {
+            int gap = random.nextInt(width);
+            for (int j = 0; j < width; j++) {
+                cells[i][j] = j != gap && random.nextInt(4) != 0;
+            }
+        }
+        board = BitBoard.fromArray(cells);
+
+        block = new BlockModel(random);
+        nextBlock = new BlockModel(random);
+        piece = PieceMask.of(block.getBlockShape());
+        pieceX = (width - piece.getWidth()) / 2;
+        pieceY = 0;
+        while (pieceY + piece.getHeight() < height && !board.collides(piece, pieceX, pieceY + 1)) {
+            pieceY++;
+        }
+        aiPieceY = pieceY + piece.getHeight() - 1;
+
+        // Column heights and holes as GameEngine keeps them for the board
+        currentPiece = PieceRotation.of(block);
+        nextPiece = PieceRotation.of(nextBlock);
+        GameEngine engine = new GameEngine(width, height, 1, new PieceSequence(16));
+        engine.setBoard(board);
+        features = engine.getFeatures();
+    }
+}
@@ -0,0 +1,71 @@
+package com.group16.tetris.benchmarks;
+
+import com.group16.tetris.models.BitBoard;
+import com.group16.tetris.models.GameEngine;
+import com.group16.tetris.models.PieceRotation;
+import com.group16.tetris.models.PieceSequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Rule checks run on every game tick and every locked block
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEngineBenchmark {
+
+    // Rows completed on top of the board's stack before each row check
+    private static final int COMPLETED_ROWS = 2;
+
+    private GameEngine engine;
+    private BitBoard completedRowsBoard;
+
+    @Setup
+    public void setUp(BoardState state) {
+        PieceSequence pieces = new PieceSequence(16);
+        engine = new GameEngine(state.width, state.height, 1, pieces);
+        engine.newGame(state.width, state.height, 1, pieces);
+        engine.setBoard(state.cells);
+        engine.setCurrentPiece(PieceRotation.of(state.block));
+        engine.setCurrentX(state.pieceX);
+
+        completedRowsBoard = new BitBoard(state.board);
+        for (int i = state.height - COMPLETED_ROWS; i < state.height; i++) {
+            completedRowsBoard.setRow(i, completedRowsBoard.getFullRowMask());
+        }
+    }
+
+    // Gravity check: same column, so the board is only read
+    @Benchmark
+    public boolean isValidPositionDown(BoardState state) {
+        engine.setCurrentY(state.pieceY);
+        return engine.isValidPosition(state.pieceX, state.pieceY + 0.5);
+    }
+
+    // Sideways move, which checks two rows
+    @Benchmark
+    public boolean isValidPositionSideways(BoardState state) {
+        engine.setCurrentY(state.pieceY);
+        return engine.isValidPosition(state.pieceX + 1, state.pieceY);
+    }
+
+    // Clearing rows changes the board, so each call starts from a copy with the rows completed again. Loading the copy
+    // also rebuilds the engine's board features
+    @Benchmark
+    public int checkCompletedRows() {
+        engine.setBoard(completedRowsBoard);
+        return engine.checkCompletedRows();
+    }
+}
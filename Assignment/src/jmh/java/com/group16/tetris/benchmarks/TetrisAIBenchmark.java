@@ -0,0 +1,56 @@
+package com.group16.tetris.benchmarks;
+
+import com.group16.tetris.services.TetrisAI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Search and scoring paths run for every spawned block of a computer player
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TetrisAIBenchmark {
+
+    private final TetrisAI aiManager = new TetrisAI(TetrisAI.SearchMode.SEQUENTIAL);
+
+    public TetrisAIBenchmark() {
+        aiManager.setLookaheadTimeLimited(false);                              // Time the whole lookahead search
+    }
+
+    @Benchmark
+    public int[] scanBoard(BoardState state) {
+        return aiManager.scanBoard(state.board, state.block);
+    }
+
+    // The search a computer player runs for each block
+    @Benchmark
+    public int[] findBestMove(BoardState state) {
+        return aiManager.findBestMove(state.board, state.features, state.currentPiece);
+    }
+
+    @Benchmark
+    public int[] findBestMoveWithLookahead(BoardState state) {
+        return aiManager.findBestMoveWithLookahead(state.board, state.features, state.currentPiece, state.nextPiece);
+    }
+
+    @Benchmark
+    public boolean isValidPlacement(BoardState state) {
+        return aiManager.isValidPlacement(state.board, state.piece, state.pieceX, state.aiPieceY);
+    }
+
+    @Benchmark
+    public int scorePosition(BoardState state) {
+        return aiManager.scorePosition(state.board, state.piece, state.pieceX, state.aiPieceY);
+    }
+}
@@ -0,0 +1,32 @@
+package com.group16.tetris.benchmarks;
+
+import com.group16.tetris.models.PureGame;
+import com.group16.tetris.services.TetrisClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Building the game state sent to an external player for every spawned block
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TetrisClientBenchmark {
+
+    private final TetrisClient tetrisClient = new TetrisClient();
+
+    @Benchmark
+    public PureGame createPureGame(BoardState state) {
+        return tetrisClient.createPureGame(state.width, state.height, state.board, state.block, state.nextBlock);
+    }
+}
@@ -8,9 +8,14 @@ import com.group16.tetris.views.SplashScreen;
 import com.group16.tetris.utils.UIFactory;
 import com.group16.tetris.controllers.GameController;
 import com.group16.tetris.models.ConfigurationModel;
+import com.group16.tetris.services.GameEvents;
+import com.group16.tetris.services.GameMetrics;
 import com.group16.tetris.utils.TetrisMusicPlayer;
 
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.text.ParseException;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
@@ -208,7 +213,10 @@ public class GameLauncher extends JFrame {
         if (response == JOptionPane.YES_OPTION) {
             gameController.writeScoresJsonFile();
             gameController.writeConfigurationJsonFile();
+            gameController.shutdownGame();
 
+            // The files are written in the background and flushed on exit, so close the window without waiting
+            setVisible(false);
             System.exit(0);
         } else {
             SwingUtilities.invokeLater(() -> {
@@ -227,14 +235,36 @@ public class GameLauncher extends JFrame {
             public void windowClosing(WindowEvent e) {
                 gameController.writeScoresJsonFile();
                 gameController.writeConfigurationJsonFile();
+                gameController.shutdownGame();
 
+                setVisible(false);
                 System.exit(0);
             }
         });
     }
 
+    // Starts a flight recording that is written to the file on exit
+    private static void startFlightRecording(String file) {
+        try {
+            GameEvents.startRecording(Path.of(file));
+            System.out.println("Flight recording to " + Path.of(file).toAbsolutePath());
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("Could not start the flight recording: " + e.getMessage());
+        }
+    }
+
     // Main method to launch the game
     public static void main(String[] args) {
+        // -Dtetris.metrics.dump=SECONDS prints the game's latency histograms every SECONDS seconds
+        GameMetrics.getInstance().startPeriodicDump(Integer.getInteger("tetris.metrics.dump", 0));
+
+        // --jfr records a flight recording of the session, written to tetris.jfr (or --jfr=FILE) on exit
+        for (String arg : args) {
+            if (arg.equals("--jfr") || arg.startsWith("--jfr=")) {
+                startFlightRecording(arg.equals("--jfr") ? "tetris.jfr" : arg.substring("--jfr=".length()));
+            }
+        }
+
         SplashScreen splashScreen = new SplashScreen(3000);
         splashScreen.showSplashScreen();
 
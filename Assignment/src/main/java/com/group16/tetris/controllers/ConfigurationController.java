@@ -60,4 +60,9 @@ public class ConfigurationController {
     public void setExtendMode(boolean isEnabled) {
         configManager.setExtendMode(isEnabled);
     }
+
+    // Enable or disable active rendering of the play area
+    public void setActiveRendering(boolean isEnabled) {
+        configManager.setActiveRendering(isEnabled);
+    }
 }
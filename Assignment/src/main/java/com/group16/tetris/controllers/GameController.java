@@ -167,6 +167,11 @@ public class GameController {
         gameFacade.writeConfigurationJsonFile();
     }
 
+    // Stops the game's background threads before the application exits
+    public void shutdownGame() {
+        gameManager.shutdown();
+    }
+
     // Retrieves the game panel
     public JPanel getGamePanel() {
         return gameManager.getGamePanel();
@@ -2,6 +2,7 @@ package com.group16.tetris.facades;
 
 import com.group16.tetris.models.ConfigurationModel;
 import com.group16.tetris.models.GameModel;
+import com.group16.tetris.services.PersistenceService;
 import com.group16.tetris.utils.JsonReaderAndWriter;
 import com.group16.tetris.views.ConfigurationView;
 import com.group16.tetris.views.HighScoresView;
@@ -49,14 +50,15 @@ public class SystemFacade {
         highScoresUI.updateNameAndScoreLabels();  // Update the UI with new high scores
     }
 
-    // Saves high scores to a JSON file
+    // Saves high scores to a JSON file in the background. They are serialised now, so later scores aren't included
     public void writeScoresJsonFile() {
-        JsonReaderAndWriter.writeScoresJson(highScoresController.getScoresManager());
+        PersistenceService.getInstance().writeScores(
+                JsonReaderAndWriter.scoresToJson(highScoresController.getScoresManager()));
     }
 
-    // Saves the current configuration to a JSON file
+    // Saves the current configuration to a JSON file in the background
     public void writeConfigurationJsonFile() {
-        JsonReaderAndWriter.writeConfigurationFile();
+        PersistenceService.getInstance().writeConfiguration(JsonReaderAndWriter.configurationToJson());
     }
 
     // Loads configuration from the JSON file and updates the UI
@@ -0,0 +1,162 @@
+package com.group16.tetris.models;
+
+import java.util.Arrays;
+
+// Game field stored as one bitmask per row, so collisions and full rows are checked a word at a time
+public class BitBoard {
+
+    private static final int MAX_WIDTH = Long.SIZE;
+
+    private final int width;
+    private final int height;
+    private final long fullRowMask;
+    private final long[] rows;  // Bit x of rows[y] is set when the cell (x, y) is occupied
+
+    // Creates an empty board with the given dimensions
+    public BitBoard(int width, int height) {
+        if (width < 1 || width > MAX_WIDTH) {
+            throw new IllegalArgumentException("Board width must be between 1 and " + MAX_WIDTH + ": " + width);
+        }
+        this.width = width;
+        this.height = height;
+        this.fullRowMask = width == MAX_WIDTH ? -1L : (1L << width) - 1;
+        this.rows = new long[height];
+    }
+
+    // Copy constructor that duplicates the occupied cells of another board
+    public BitBoard(BitBoard board) {
+        this.width = board.width;
+        this.height = board.height;
+        this.fullRowMask = board.fullRowMask;
+        this.rows = board.rows.clone();
+    }
+
+    // Builds a board from a boolean grid indexed as [row][column]
+    public static BitBoard fromArray(boolean[][] cells) {
+        BitBoard board = new BitBoard(cells[0].length, cells.length);
+        for (int y = 0; y < cells.length; y++) {
+            for (int x = 0; x < cells[y].length; x++) {
+                if (cells[y][x]) {
+                    board.rows[y] |= 1L << x;
+                }
+            }
+        }
+        return board;
+    }
+
+    // Expands the board back into a boolean grid indexed as [row][column]
+    public boolean[][] toArray() {
+        boolean[][] cells = new boolean[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                cells[y][x] = isOccupied(x, y);
+            }
+        }
+        return cells;
+    }
+
+    // Overwrites this board with the cells of another board of the same size, without allocating
+    public void copyFrom(BitBoard board) {
+        if (board.width != width || board.height != height) {
+            throw new IllegalArgumentException("Cannot copy a " + board.width + "x" + board.height
+                    + " board into a " + width + "x" + height + " board");
+        }
+        System.arraycopy(board.rows, 0, rows, 0, height);
+    }
+
+    public boolean isOccupied(int x, int y) {
+        return (rows[y] & (1L << x)) != 0;
+    }
+
+    public void setOccupied(int x, int y) {
+        rows[y] |= 1L << x;
+    }
+
+    public long getRow(int y) {
+        return rows[y];
+    }
+
+    public void setRow(int y, long row) {
+        rows[y] = row;
+    }
+
+    public boolean isRowFull(int y) {
+        return rows[y] == fullRowMask;
+    }
+
+    public boolean isRowEmpty(int y) {
+        return rows[y] == 0;
+    }
+
+    // Checks if a piece with its top-left corner at (x, y) overlaps a block, a wall or the floor
+    public boolean collides(PieceMask piece, int x, int y) {
+        if (x + piece.getMinColumn() < 0 || x + piece.getMaxColumn() >= width) {
+            return true;
+        }
+        for (int i = 0; i < piece.getHeight(); i++) {
+            long pieceRow = piece.rowAt(i, x);
+            if (pieceRow == 0) {
+                continue;
+            }
+            int boardY = y + i;
+            if (boardY < 0 || boardY >= height || (rows[boardY] & pieceRow) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Marks the cells of a piece with its top-left corner at (x, y) as occupied
+    public void place(PieceMask piece, int x, int y) {
+        for (int i = 0; i < piece.getHeight(); i++) {
+            long pieceRow = piece.rowAt(i, x);
+            if (pieceRow != 0) {
+                rows[y + i] |= pieceRow;
+            }
+        }
+    }
+
+    // Removes a row and shifts every row above it down by one
+    public void removeRow(int y) {
+        removeRows(new int[] {y}, 1);
+    }
+
+    // Removes several rows, given in ascending order, moving each remaining row down once rather than once per
+    // removed row
+    public void removeRows(int[] removedRows, int count) {
+        int write = height - 1;
+        int removed = count - 1;
+        for (int y = height - 1; y >= 0; y--) {
+            if (removed >= 0 && removedRows[removed] == y) {
+                removed--;
+            } else {
+                rows[write--] = rows[y];
+            }
+        }
+        Arrays.fill(rows, 0, write + 1, 0L);
+    }
+
+    // Removes every full row, shifting the rows above down in a single pass, and returns how many were removed
+    public int clearFullRows() {
+        int write = height - 1;
+        for (int y = height - 1; y >= 0; y--) {
+            if (!isRowFull(y)) {
+                rows[write--] = rows[y];
+            }
+        }
+        Arrays.fill(rows, 0, write + 1, 0L);
+        return write + 1;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getFullRowMask() {
+        return fullRowMask;
+    }
+}
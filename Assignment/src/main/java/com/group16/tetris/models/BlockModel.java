@@ -144,7 +144,7 @@ public class BlockModel {
     };
 
     // Colours corresponding to each shape type
-    private static final Color[] SHAPE_COLOURS = {
+    static final Color[] SHAPE_COLOURS = {
             new Color(173, 216, 230), // Light blue for straight
             Color.YELLOW, // Square
             Color.GREEN, // Z shape
@@ -157,7 +157,17 @@ public class BlockModel {
 
     // Constructor that randomly assigns a shape and colour to the block
     public BlockModel(){
-        this.shapeType = ShapeType.values()[RANDOM.nextInt(ShapeType.values().length)];
+        this(RANDOM);
+    }
+
+    // Constructor that picks the shape from the given generator, so a seeded generator repeats the same blocks
+    public BlockModel(Random random){
+        this(ShapeType.values()[random.nextInt(ShapeType.values().length)]);
+    }
+
+    // Constructor for a block of the given shape, e.g. one dealt by a PieceSequence
+    public BlockModel(ShapeType shapeType){
+        this.shapeType = shapeType;
         this.rotationIndex = 0;
         this.blockShape = SHAPES[shapeType.ordinal()][rotationIndex];
         this.colour = SHAPE_COLOURS[shapeType.ordinal()];
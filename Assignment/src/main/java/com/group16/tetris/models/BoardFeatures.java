@@ -0,0 +1,149 @@
+package com.group16.tetris.models;
+
+import java.util.Arrays;
+
+// Column heights, filled cells per column and per row, and holes of a game field, kept up to date by GameEngine as
+// blocks lock and rows clear instead of being measured by scanning the board. Other packages can only read them
+public class BoardFeatures {
+
+    private final int width;
+    private final int height;
+    private final int[] columnHeights;  // Rows from the bottom up to and including the column's top filled cell
+    private final int[] columnFills;    // Filled cells in each column
+    private final int[] rowFills;       // Filled cells in each row
+    private int holeCount;              // Empty cells under the top of their column
+
+    public BoardFeatures(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.columnHeights = new int[width];
+        this.columnFills = new int[width];
+        this.rowFills = new int[height];
+    }
+
+    // Copy constructor, e.g. for a snapshot handed to another thread
+    public BoardFeatures(BoardFeatures features) {
+        this.width = features.width;
+        this.height = features.height;
+        this.columnHeights = features.columnHeights.clone();
+        this.columnFills = features.columnFills.clone();
+        this.rowFills = features.rowFills.clone();
+        this.holeCount = features.holeCount;
+    }
+
+    // Measures every feature from a board, for when the board was replaced rather than changed a block at a time
+    void rebuild(BitBoard board) {
+        Arrays.fill(columnHeights, 0);
+        Arrays.fill(columnFills, 0);
+        for (int y = 0; y < height; y++) {
+            long row = board.getRow(y);
+            rowFills[y] = Long.bitCount(row);
+            while (row != 0) {
+                int x = Long.numberOfTrailingZeros(row);
+                columnFills[x]++;
+                if (columnHeights[x] == 0) {
+                    columnHeights[x] = height - y;                              // First filled cell from the top
+                }
+                row &= row - 1;
+            }
+        }
+        countHoles();
+    }
+
+    // Adds a locked piece with its top-left corner at (x, y)
+    void place(PieceRotation piece, int x, int y) {
+        for (int cell = 0; cell < piece.getCellCount(); cell++) {
+            int column = x + piece.getCellX(cell);
+            int row = y + piece.getCellY(cell);
+            rowFills[row]++;
+            columnFills[column]++;
+            columnHeights[column] = Math.max(columnHeights[column], height - row);
+        }
+        countHoles();
+    }
+
+    // Removes full rows, given in ascending order. The board must already have had them removed, as it is read for
+    // the columns whose top cell was in a removed row
+    void removeRows(int[] removedRows, int count, BitBoard board) {
+        int write = height - 1;
+        int removed = count - 1;
+        for (int y = height - 1; y >= 0; y--) {
+            if (removed >= 0 && removedRows[removed] == y) {
+                removed--;
+            } else {
+                rowFills[write--] = rowFills[y];
+            }
+        }
+        Arrays.fill(rowFills, 0, write + 1, 0);
+
+        // Every removed row was full, so each column loses one cell per row
+        for (int x = 0; x < width; x++) {
+            columnFills[x] -= count;
+            int top = height - columnHeights[x];
+            if (Arrays.binarySearch(removedRows, 0, count, top) < 0) {
+                columnHeights[x] -= count;                                      // The top cell just moved down
+            } else {
+                columnHeights[x] = 0;                                           // Find the new top below the old one
+                for (int y = top; y < height; y++) {
+                    if (board.isOccupied(x, y)) {
+                        columnHeights[x] = height - y;
+                        break;
+                    }
+                }
+            }
+        }
+        countHoles();
+    }
+
+    private void countHoles() {
+        int holes = 0;
+        for (int x = 0; x < width; x++) {
+            holes += columnHeights[x] - columnFills[x];
+        }
+        holeCount = holes;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getColumnHeight(int x) {
+        return columnHeights[x];
+    }
+
+    // Returns the row of the column's top filled cell, or the board height when the column is empty
+    public int getColumnTop(int x) {
+        return height - columnHeights[x];
+    }
+
+    public int getRowFill(int y) {
+        return rowFills[y];
+    }
+
+    public boolean isRowFull(int y) {
+        return rowFills[y] == width;
+    }
+
+    public boolean isRowEmpty(int y) {
+        return rowFills[y] == 0;
+    }
+
+    public int getHoleCount() {
+        return holeCount;
+    }
+
+    // Returns a mask with bit x set when column x has an empty cell under its top
+    public long getHoleColumns() {
+        long holeColumns = 0;
+        for (int x = 0; x < width; x++) {
+            if (columnHeights[x] > columnFills[x]) {
+                holeColumns |= 1L << x;
+            }
+        }
+        return holeColumns;
+    }
+}
@@ -0,0 +1,85 @@
+package com.group16.tetris.models;
+
+import com.group16.tetris.utils.BlockTiles;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+// Off-screen image of one player's field: background, grid lines and settled blocks. Rows are only redrawn after the
+// engine reports them changed, so each frame just copies the image and draws the falling block over it
+public class BoardLayer {
+
+    private final BufferedImage image;
+    private final Color background;
+    private final int blockSize;
+    private final int fieldWidth;
+    private final int fieldHeight;
+
+    // Rows to redraw before the next copy, fromRow (inclusive) to toRow (exclusive)
+    private int changedFromRow;
+    private int changedToRow;
+
+    public BoardLayer(int fieldWidth, int fieldHeight, int blockSize, Color background) {
+        this.fieldWidth = fieldWidth;
+        this.fieldHeight = fieldHeight;
+        this.blockSize = blockSize;
+        this.background = background;
+        // One extra pixel for the grid lines on the right and bottom edges
+        this.image = new BufferedImage(fieldWidth * blockSize + 1, fieldHeight * blockSize + 1,
+                BufferedImage.TYPE_INT_RGB);
+        this.changedFromRow = 0;
+        this.changedToRow = fieldHeight;
+    }
+
+    // Records rows fromRow (inclusive) to toRow (exclusive) as changed
+    public void rowsChanged(int fromRow, int toRow) {
+        changedFromRow = Math.min(changedFromRow, Math.max(fromRow, 0));
+        changedToRow = Math.max(changedToRow, Math.min(toRow, fieldHeight));
+    }
+
+    // Redraws the changed rows from the engine's board, then copies the image with its top-left corner at (x, y)
+    public void draw(Graphics g, GameEngine engine, int x, int y) {
+        update(engine);
+        g.drawImage(image, x, y, null);
+    }
+
+    // Redraws the changed rows from the engine's board
+    public void update(GameEngine engine) {
+        if (changedFromRow >= changedToRow) {
+            return;
+        }
+        BitBoard board = engine.getBoard();
+        PieceBoard pieceBoard = engine.getPieceBoard();
+        Graphics g = image.getGraphics();
+
+        // Rows share their edge lines with the rows next to them, so clip to the changed rows and redraw the
+        // neighbouring rows' blocks into the clip as well
+        g.setClip(0, changedFromRow * blockSize, image.getWidth(), (changedToRow - changedFromRow) * blockSize + 1);
+        g.setColor(background);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+
+        g.setColor(Color.GRAY);
+        for (int i = changedFromRow; i <= changedToRow; i++) {
+            g.drawLine(0, i * blockSize, fieldWidth * blockSize, i * blockSize);
+        }
+        for (int j = 0; j <= fieldWidth; j++) {
+            g.drawLine(j * blockSize, 0, j * blockSize, fieldHeight * blockSize);
+        }
+
+        for (int i = Math.max(changedFromRow - 1, 0); i < Math.min(changedToRow + 1, fieldHeight); i++) {
+            for (int j = 0; j < fieldWidth; j++) {
+                if (board.isOccupied(j, i)) {
+                    BlockTiles.drawBlock(g, pieceBoard.getColour(j, i), j * blockSize, i * blockSize, blockSize);
+                }
+            }
+        }
+        g.dispose();
+        changedFromRow = Integer.MAX_VALUE;
+        changedToRow = Integer.MIN_VALUE;
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+}
@@ -9,7 +9,8 @@ public class ConfigurationModel {
     public enum PlayerType {
         HUMAN(1),
         AI(2),
-        EXTERNAL(3);
+        EXTERNAL(3),
+        AI_LOOKAHEAD(4);  // AI that also plans for the next block
 
         private int value;
 
@@ -38,6 +39,7 @@ public class ConfigurationModel {
     private static final boolean DEFAULT_MUSIC = true;
     private static final boolean DEFAULT_SOUND_EFFECTS = true;
     private static final boolean DEFAULT_EXTEND_MODE = false;
+    private static final boolean DEFAULT_ACTIVE_RENDERING = false;
     private static final PlayerType DEFAULT_PLAYER1_TYPE = PlayerType.HUMAN;
     private static final PlayerType DEFAULT_PLAYER2_TYPE = PlayerType.HUMAN;
 
@@ -48,6 +50,7 @@ public class ConfigurationModel {
     private boolean music;
     private boolean soundEffects;
     private boolean extendMode;
+    private boolean activeRendering;  // Draw the play area from the game loop rather than through Swing's repaints
     private PlayerType player1Type;
     private PlayerType player2Type;
 
@@ -76,6 +79,7 @@ public class ConfigurationModel {
         this.music = DEFAULT_MUSIC;
         this.soundEffects = DEFAULT_SOUND_EFFECTS;
         this.extendMode = DEFAULT_EXTEND_MODE;
+        this.activeRendering = DEFAULT_ACTIVE_RENDERING;
         this.player1Type = DEFAULT_PLAYER1_TYPE;
         this.player2Type = DEFAULT_PLAYER2_TYPE;
     }
@@ -157,6 +161,15 @@ public class ConfigurationModel {
         return this;
     }
 
+    public boolean isActiveRenderingEnabled() {
+        return activeRendering;
+    }
+
+    public ConfigurationModel setActiveRendering(boolean activeRendering) {
+        this.activeRendering = activeRendering;
+        return this;
+    }
+
     public PlayerType getPlayer1Type() {
         return player1Type;
     }
@@ -0,0 +1,129 @@
+package com.group16.tetris.models;
+
+import java.awt.Rectangle;
+
+// Works out which parts of one player's field changed since the last repaint: the falling block's old and new bounds,
+// rows the engine reported as changed, and the info panel when anything it shows changed. GameModel repaints just
+// these regions each tick instead of the whole panel. All coordinates are in pixels
+public class DirtyRegionTracker {
+
+    // Receives each region to repaint, e.g. JComponent::repaint
+    public interface Repainter {
+        void repaint(int x, int y, int width, int height);
+    }
+
+    private final int boardX;
+    private final int infoX;
+    private final int infoWidth;
+    private final int panelHeight;
+    private final int blockSize;
+    private final int fieldWidth;
+    private final int fieldHeight;
+
+    // Falling block drawn last time, and its bounds
+    private PieceRotation drawnPiece;
+    private int drawnX;
+    private double drawnY;
+    private final Rectangle lastPiece = new Rectangle();
+    private final Rectangle piece = new Rectangle();
+
+    // Rows changed since the last repaint, fromRow (inclusive) to toRow (exclusive)
+    private int changedFromRow;
+    private int changedToRow;
+
+    // What the info panel showed last time
+    private int lastScore;
+    private int lastGameLevel;
+    private int lastDeletedRows;
+    private PieceRotation lastNextPiece;
+    private boolean lastDisconnected;
+
+    public DirtyRegionTracker(int boardX, int infoX, int infoWidth, int panelHeight, int blockSize, int fieldWidth,
+                              int fieldHeight) {
+        this.boardX = boardX;
+        this.infoX = infoX;
+        this.infoWidth = infoWidth;
+        this.panelHeight = panelHeight;
+        this.blockSize = blockSize;
+        this.fieldWidth = fieldWidth;
+        this.fieldHeight = fieldHeight;
+        invalidate();
+    }
+
+    // Marks the whole board and info panel as changed
+    public void invalidate() {
+        changedFromRow = 0;
+        changedToRow = fieldHeight;
+        lastScore = -1;
+    }
+
+    // Records rows fromRow (inclusive) to toRow (exclusive) as changed
+    public void rowsChanged(int fromRow, int toRow) {
+        changedFromRow = Math.min(changedFromRow, Math.max(fromRow, 0));
+        changedToRow = Math.max(changedToRow, Math.min(toRow, fieldHeight));
+    }
+
+    // Passes the regions that changed since the last call to the repainter
+    public void repaintChanges(GameEngine engine, boolean disconnected, Repainter repainter) {
+        repaintChanges(engine, engine.getCurrentY(), disconnected, repainter);
+    }
+
+    // Same, with the falling block drawn at row pieceY rather than the engine's row, e.g. between two game steps
+    public void repaintChanges(GameEngine engine, double pieceY, boolean disconnected, Repainter repainter) {
+        // The falling block's old and new bounds, if it moved. The outline of each cell takes one more pixel, and a
+        // fractional row can round into one more again
+        PieceRotation currentPiece = engine.getCurrentPiece();
+        drawnPiece = currentPiece;
+        drawnX = engine.getCurrentX();
+        drawnY = pieceY;
+        if (currentPiece != null) {
+            piece.setBounds(boardX + drawnX * blockSize, (int) (pieceY * blockSize),
+                    currentPiece.getWidth() * blockSize + 1, currentPiece.getHeight() * blockSize + 2);
+        } else {
+            piece.setBounds(0, 0, 0, 0);
+        }
+        if (!piece.equals(lastPiece)) {
+            if (!lastPiece.isEmpty()) {
+                repainter.repaint(lastPiece.x, lastPiece.y, lastPiece.width, lastPiece.height);
+            }
+            if (!piece.isEmpty()) {
+                repainter.repaint(piece.x, piece.y, piece.width, piece.height);
+            }
+            lastPiece.setBounds(piece);
+        }
+
+        // Rows changed by a lock or clear
+        if (changedFromRow < changedToRow) {
+            repainter.repaint(boardX, changedFromRow * blockSize, fieldWidth * blockSize + 1,
+                    (changedToRow - changedFromRow) * blockSize + 1);
+            changedFromRow = Integer.MAX_VALUE;
+            changedToRow = Integer.MIN_VALUE;
+        }
+
+        // Info panel, when the score, level, rows, next block or connection status changed
+        if (engine.getScore() != lastScore || engine.getGameLevel() != lastGameLevel
+                || engine.getDeletedRows() != lastDeletedRows || engine.getNextPiece() != lastNextPiece
+                || disconnected != lastDisconnected) {
+            repainter.repaint(infoX, 0, infoWidth, panelHeight);
+            lastScore = engine.getScore();
+            lastGameLevel = engine.getGameLevel();
+            lastDeletedRows = engine.getDeletedRows();
+            lastNextPiece = engine.getNextPiece();
+            lastDisconnected = disconnected;
+        }
+    }
+
+    // Falling block the last repaint was for, or null before the first one. Painting this rather than the engine's
+    // block keeps the screen matching the regions repainted, even if the game moved on in between
+    public PieceRotation getDrawnPiece() {
+        return drawnPiece;
+    }
+
+    public int getDrawnX() {
+        return drawnX;
+    }
+
+    public double getDrawnY() {
+        return drawnY;
+    }
+}
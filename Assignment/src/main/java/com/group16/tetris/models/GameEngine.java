@@ -0,0 +1,383 @@
+package com.group16.tetris.models;
+
+// Rules of one player's game: spawning, movement, gravity, locking blocks, clearing rows and scoring. It has no Swing,
+// timer or audio, so a game can be stepped as fast as the caller likes. GameModel runs one per player on its game loop
+public class GameEngine {
+
+    // Receives game events, e.g. to play sounds or to ask for the next block's move
+    public interface Listener {
+        default void onBlockSpawned() {
+        }
+
+        default void onBlockSettled() {
+        }
+
+        default void onRowCleared() {
+        }
+
+        // Rows fromRow (inclusive) to toRow (exclusive) of the board changed, e.g. so only they are repainted
+        default void onRowsChanged(int fromRow, int toRow) {
+        }
+
+        // The game ended, because a block didn't fit when it spawned or endGame was called
+        default void onGameOver() {
+        }
+    }
+
+    private static final Listener NO_LISTENER = new Listener() {
+    };
+
+    // A computer player only steers the block once it is below this row
+    private static final double STEERING_START_ROW = 2;
+
+    // Extra rows per tick a computer player drops the block once it is in position
+    private static final double COMPUTER_DROP_SPEED = 0.2;
+
+    // Dimensions of the game field in terms of blocks
+    private int fieldWidth;
+    private int fieldHeight;
+
+    // State of the game field
+    private BitBoard board;
+    private PieceBoard pieceBoard;
+    private BoardFeatures features;  // Column heights, holes and row fills, updated as blocks lock and rows clear
+    private int[] completedRows;  // Rows found full by the last check, reused between checks
+
+    // Current falling block's properties, and the sequence the blocks come from
+    private PieceSequence pieces;
+    private PieceRotation currentPiece;
+    private PieceRotation nextPiece;
+    private int currentX;
+    private double currentY;
+
+    private int gameLevel;
+    private int score;
+    private int deletedRows;
+    private int deletedRowsCounter;  // Rows towards the next level
+    private boolean gameEnded = true;
+
+    // Position a computer player is steering the block towards
+    private int targetX;
+    private int targetRotation;
+
+    private Listener listener = NO_LISTENER;
+
+    public GameEngine(int width, int height, int gameLevel, PieceSequence pieces) {
+        this.pieces = pieces;
+        this.nextPiece = PieceRotation.of(pieces.peek(0), 0);
+        this.fieldWidth = width;
+        this.fieldHeight = height;
+        this.gameLevel = gameLevel;
+        this.board = new BitBoard(width, height);
+        this.pieceBoard = new PieceBoard(width, height);
+        this.features = new BoardFeatures(width, height);
+        this.completedRows = new int[height];
+    }
+
+    // Clears the field and score for a new game dealt from the given sequence. The first block is spawned separately
+    public void newGame(int width, int height, int gameLevel, PieceSequence pieces) {
+        this.pieces = pieces;
+        this.nextPiece = PieceRotation.of(pieces.peek(0), 0);
+        this.fieldWidth = width;
+        this.fieldHeight = height;
+        this.gameLevel = gameLevel;
+        this.score = 0;
+        this.deletedRows = 0;
+        this.deletedRowsCounter = 0;
+        this.board = new BitBoard(width, height);
+        this.features = new BoardFeatures(width, height);
+        if (pieceBoard.getWidth() == width && pieceBoard.getHeight() == height) {
+            pieceBoard.clear();
+        } else {
+            pieceBoard = new PieceBoard(width, height);
+            completedRows = new int[height];
+        }
+        this.gameEnded = false;
+    }
+
+    // Spawns the next block at the top centre of the field, ending the game if it doesn't fit
+    public void spawnBlock() {
+        currentPiece = PieceRotation.of(pieces.next(), 0);
+        nextPiece = PieceRotation.of(pieces.peek(0), 0);
+        currentX = (fieldWidth / 2) - (currentPiece.getWidth() / 2);
+        currentY = 0;
+
+        boolean fits = isValidPosition(currentX, currentY);
+        if (!fits) {
+            gameEnded = true;
+        }
+        listener.onBlockSpawned();
+        if (!fits) {
+            listener.onGameOver();
+        }
+    }
+
+    // Advances the game by one tick: a computer player first steers towards its target, then gravity moves the block
+    // down, locking it when it can't move further
+    public void tick(boolean computerControlled) {
+        if (gameEnded) {
+            return;
+        }
+        double extraSpeed = 0.0;
+        if (computerControlled && currentY > STEERING_START_ROW) {
+            if (currentPiece.getRotationIndex() != targetRotation) {            // Rotate first
+                rotate();
+            } else if (currentX < targetX) {
+                currentX++;
+            } else if (currentX > targetX) {
+                currentX--;
+            } else {
+                extraSpeed = COMPUTER_DROP_SPEED;
+            }
+        }
+
+        double speed = 0.02 + (gameLevel * 0.01);                               // Calculate the block drop speed
+        double newY = currentY + speed + extraSpeed;
+        if (isValidPosition(currentX, newY)) {
+            currentY = newY;
+        } else {
+            currentY = newY;
+            stopBlock();                                                        // Stop the block when it can't move further down
+        }
+    }
+
+    public boolean isValidPosition(int x, double y) {
+        PieceMask pieceMask = currentPiece.getMask();
+        int intY = (int) y;
+
+        // Check if the block can move left or right into a valid position
+        if (currentX != x) {
+            // Verify if the block is out of bounds or collides with another block in the first and second rows
+            boolean canMoveRow1 = !board.collides(pieceMask, x, intY);
+            intY++;
+            boolean canMoveRow2 = !board.collides(pieceMask, x, intY);
+
+            // Return true if both rows are valid, or adjust the y-coordinate if only the second row is valid
+            if (canMoveRow1 && canMoveRow2) {
+                return true;
+            } else if (!canMoveRow1 && canMoveRow2) {
+                currentY = intY;
+                return true;
+            }
+            return false;
+        }
+
+        // Check vertical movement within the same column, then check if moving down further collides
+        intY = (int) y;
+        return !board.collides(pieceMask, x, intY) && !board.collides(pieceMask, x, intY + 1);
+    }
+
+    // Rotates the block clockwise if the rotated shape fits, and returns whether it did
+    public boolean rotate() {
+        int newX = newShapeX(currentX);
+        double newY = newShapeY(currentY);
+        PieceRotation oldPiece = currentPiece;
+
+        currentPiece = currentPiece.next();
+        if (!isValidPosition(newX, newY)) {
+            currentPiece = oldPiece;
+            return false;
+        }
+        currentX = newX;
+        currentY = newY;
+        return true;
+    }
+
+    public boolean moveLeft() {
+        return move(currentX - 1, currentY, false);
+    }
+
+    public boolean moveRight() {
+        return move(currentX + 1, currentY, false);
+    }
+
+    // Moves the block down faster, locking it if it can't move further
+    public boolean softDrop() {
+        return move(currentX, currentY + 0.5, true);
+    }
+
+    // Moves the block if the new position is valid, and returns whether it did
+    private boolean move(int newX, double newY, boolean stopIfBlocked) {
+        double oldY = currentY;
+        if (isValidPosition(newX, newY)) {
+            currentX = newX;
+            if (currentY == oldY) {
+                currentY = newY;
+            }
+            return true;
+        } else if (stopIfBlocked) {
+            currentY = newY;
+            stopBlock();
+        }
+        return false;
+    }
+
+    // Stops the current block, adds it to the board, clears completed rows and spawns the next block
+    public void stopBlock() {
+        int intY = (int) currentY;
+
+        // Add the current block to the board, then record its shape for drawing and its cells in the features
+        board.place(currentPiece.getMask(), currentX, intY);
+        pieceBoard.place(currentPiece, currentX, intY);
+        features.place(currentPiece, currentX, intY);
+        listener.onBlockSettled();
+        listener.onRowsChanged(intY, intY + currentPiece.getHeight());
+
+        // Only the rows the block covers can have been completed by it
+        checkCompletedRows(intY, intY + currentPiece.getHeight());
+        spawnBlock();
+    }
+
+    // Removes completed rows, updates the score and level, and returns how many rows were removed
+    public int checkCompletedRows() {
+        return checkCompletedRows(0, fieldHeight);
+    }
+
+    // Checks rows fromRow (inclusive) to toRow (exclusive) for completion
+    private int checkCompletedRows(int fromRow, int toRow) {
+        int deletedRowsInACheck = 0;
+
+        // Find the fully completed rows from their fill counts, then remove them all and shift the rows above down in
+        // one pass
+        for (int i = Math.max(fromRow, 0); i < Math.min(toRow, fieldHeight); i++) {
+            if (features.isRowFull(i)) {
+                completedRows[deletedRowsInACheck++] = i;
+                listener.onRowCleared();
+            }
+        }
+        if (deletedRowsInACheck > 0) {
+            board.removeRows(completedRows, deletedRowsInACheck);
+            pieceBoard.removeRows(completedRows, deletedRowsInACheck);
+            features.removeRows(completedRows, deletedRowsInACheck, board);
+            listener.onRowsChanged(0, completedRows[deletedRowsInACheck - 1] + 1);     // Every row above moved down
+        }
+
+        // Update the score based on the number of deleted rows
+        deletedRows += deletedRowsInACheck;
+        if (deletedRowsInACheck == 1) {
+            score += 100;
+        } else if (deletedRowsInACheck == 2) {
+            score += 300;
+        } else if (deletedRowsInACheck == 3) {
+            score += 600;
+        } else if (deletedRowsInACheck == 4) {
+            score += 1000;
+        }
+
+        // Update the game level after a certain number of rows
+        deletedRowsCounter += deletedRowsInACheck;
+        if (deletedRowsCounter >= 10 && !gameEnded) {
+            if (gameLevel < 10) {
+                gameLevel++;
+            }
+            deletedRowsCounter -= 10;
+        }
+        return deletedRowsInACheck;
+    }
+
+    // Adjusts the y-coordinate when rotating specific block shapes
+    public double newShapeY(double y) {
+        return y + currentPiece.getKickY();
+    }
+
+    // Adjusts the x-coordinate when rotating specific block shapes
+    public int newShapeX(int x) {
+        return x + currentPiece.getKickX();
+    }
+
+    // Sets the position a computer player steers the block towards
+    public void setTarget(int targetX, int targetRotation) {
+        this.targetX = targetX;
+        this.targetRotation = targetRotation;
+    }
+
+    public void endGame() {
+        if (!gameEnded) {
+            gameEnded = true;
+            listener.onGameOver();
+        }
+    }
+
+    public boolean isGameEnded() {
+        return gameEnded;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener != null ? listener : NO_LISTENER;
+    }
+
+    public BitBoard getBoard() {
+        return board;
+    }
+
+    public void setBoard(boolean[][] board) {
+        this.board = BitBoard.fromArray(board);
+        features.rebuild(this.board);
+        listener.onRowsChanged(0, fieldHeight);
+    }
+
+    // Copies a board in place, e.g. to reset the field between benchmark runs
+    public void setBoard(BitBoard board) {
+        this.board.copyFrom(board);
+        features.rebuild(this.board);
+        listener.onRowsChanged(0, fieldHeight);
+    }
+
+    // Read-only view of the board's column heights, holes and row fills
+    public BoardFeatures getFeatures() {
+        return features;
+    }
+
+    public PieceBoard getPieceBoard() {
+        return pieceBoard;
+    }
+
+    public PieceRotation getCurrentPiece() {
+        return currentPiece;
+    }
+
+    public void setCurrentPiece(PieceRotation piece) {
+        this.currentPiece = piece;
+    }
+
+    // Returns the piece that will spawn after the current one
+    public PieceRotation getNextPiece() {
+        return nextPiece;
+    }
+
+    public int getCurrentX() {
+        return currentX;
+    }
+
+    public void setCurrentX(int x) {
+        this.currentX = x;
+    }
+
+    public double getCurrentY() {
+        return currentY;
+    }
+
+    public void setCurrentY(double y) {
+        this.currentY = y;
+    }
+
+    public int getGameLevel() {
+        return gameLevel;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDeletedRows() {
+        return deletedRows;
+    }
+
+    public int getFieldWidth() {
+        return fieldWidth;
+    }
+
+    public int getFieldHeight() {
+        return fieldHeight;
+    }
+}
@@ -1,37 +1,31 @@
 package com.group16.tetris.models;
 
-import com.group16.tetris.models.BlockModel.ShapeType;
 import com.group16.tetris.models.ConfigurationModel.PlayerType;
 import com.group16.tetris.models.ConfigurationModel;
+import com.group16.tetris.services.AsyncTetrisClient;
+import com.group16.tetris.services.GameEvents;
+import com.group16.tetris.services.GameLoop;
+import com.group16.tetris.services.GameMetrics;
+import com.group16.tetris.services.MoveMailbox;
+import com.group16.tetris.services.MoveRequestService;
 import com.group16.tetris.services.TetrisAI;
 import com.group16.tetris.services.TetrisClient;
+import com.group16.tetris.utils.ActiveRenderer;
+import com.group16.tetris.utils.BlockTiles;
 import com.group16.tetris.utils.TetrisMusicPlayer;
 import com.group16.tetris.utils.TetrisSoundEffectsPlayer;
 
-import java.util.Arrays;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.Socket;
-
-// New imports for networking
-import com.google.gson.Gson;
-import java.io.*;
-
-import com.group16.tetris.models.PureGame;
-import com.group16.tetris.models.OpMove;
 
 // GameManager class handles the game's core logic, rendering, and interactions
-public class GameModel extends JPanel implements KeyListener, ActionListener {
+public class GameModel extends JPanel implements KeyListener, GameLoop.Simulation {
 
     // Dimensions of the game field in terms of blocks
     private int fieldWidth;
@@ -40,56 +34,70 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
     // Size of each block in pixels
     private int blockSize = 20;
 
-    // Arrays to track the state of the game field
-    private boolean[][] board;
-    private Color[][] colourBoard;
-
-    // Current falling block's properties
-    private BlockModel currentBlock;
-    private int currentX;
-    private double currentY;
-    private int currentBlockIndex = 0;
-
-    // Timer to control the update loop of the game
-    private Timer timer;
+    // Rules and state of each player's game
+    private final GameEngine engine1;
+    private final GameEngine engine2;
+
+    // Regions of each player's field that changed since the last frame, so each frame only repaints those
+    private DirtyRegionTracker repaintTracker1;
+    private DirtyRegionTracker repaintTracker2;
+
+    // Off-screen images of each player's grid and settled blocks, redrawn only where rows changed
+    private BoardLayer boardLayer1;
+    private BoardLayer boardLayer2;
+
+    // Fonts of the messages, by size. Painting runs on the game loop thread too when rendering actively
+    private static final Map<Integer, Font> MESSAGE_FONTS = new ConcurrentHashMap<>();
+
+    // Thread that steps the game at a fixed rate and hands frames to the Swing thread. Key presses are queued to it,
+    // and everything reading or changing the engines holds its lock
+    private GameLoop gameLoop;
+
+    // Row of each player's falling block before the latest step, to draw it between steps, and whether a player
+    // changed since the last frame
+    private double previousYPlayer1;
+    private double previousYPlayer2;
+    private boolean changedPlayer1;
+    private boolean changedPlayer2;
+
+    // Canvas the game loop draws whole frames to when active rendering is selected, otherwise null. Launching with
+    // -Dtetris.render.vsync=true paces those frames to the display's refresh rate
+    private static final boolean VSYNC = Boolean.getBoolean("tetris.render.vsync");
+    private static final DirtyRegionTracker.Repainter NO_REPAINT = (x, y, width, height) -> { };
+    private ActiveRenderer activeRenderer;
     private final static int displayPanel = 120;
 
+    // Timings of steps, frames, painting and moves. F3 toggles an overlay of them in player 1's info panel, shown from
+    // the start when launching with -Dtetris.metrics.overlay=true
+    private final GameMetrics metrics = GameMetrics.getInstance();
+    private volatile boolean metricsOverlay = Boolean.getBoolean("tetris.metrics.overlay");
+    private long lastOverlayRepaintNanos;
+    private static final long OVERLAY_REPAINT_NANOS = 250_000_000L;
+    private static final int OVERLAY_HEIGHT = 40;
+
     // Initial game level
     private int initialGameLevel;
-    private List<BlockModel> blockList;
 
-    // Constants for timer delay and border thickness
-    private final int TIMER_DELAY = 20;
+    // Both players are dealt the same blocks from sequences with the same seed, picked again for every game. Launching
+    // with -Dtetris.pieces.bag=true deals shuffled bags of every shape instead of independent random shapes
+    private static final PieceSequence.Distribution PIECE_DISTRIBUTION = Boolean.getBoolean("tetris.pieces.bag")
+            ? PieceSequence.Distribution.BAG : PieceSequence.Distribution.UNIFORM;
+    private final Random pieceSeeds = new Random();
+    private long pieceSeed;
+
+    // Constants for the game step and frame lengths, and border thickness
+    public static final int STEP_DELAY = 20;  // Also the AI's lookahead time budget
+    private final int FRAME_DELAY = 16;
     private final int BORDER_THICKNESS = 3;
 
-    // Flags and variables to track the game state for player 1
-    public boolean isPausedPlayer1;
-    public boolean isGameEndedPlayer1 = true;
+    // Flags to track the game state for player 1
+    public volatile boolean isPausedPlayer1;
     public boolean isDisconnectedPlayer1 = false;
-    private int gameLevelPlayer1 = 1;
-    private int scorePlayer1;
-    private int deletedRowsPlayer1;
-    private int deletedRowsPlayer1Counter;
     private PlayerType typeOfPlayer1 = PlayerType.HUMAN;
 
-    // Arrays to track the state of the game field for player 2
-    private boolean[][] board2;
-    private Color[][] colourBoard2;
-
-    // Current falling block's properties for player 2
-    private BlockModel currentBlock2;
-    private int currentX2;
-    private double currentY2;
-    private int currentBlockIndex2 = 0;
-
-    // Flags and variables to track the game state for player 2
-    public boolean isPausedPlayer2;
-    public boolean isGameEndedPlayer2 = true;
+    // Flags to track the game state for player 2
+    public volatile boolean isPausedPlayer2;
     public boolean isDisconnectedPlayer2 = false;
-    private int gameLevelPlayer2 = 1;
-    private int scorePlayer2;
-    private int deletedRowsPlayer2;
-    private int deletedRowsPlayer2Counter;
     private PlayerType typeOfPlayer2 = PlayerType.HUMAN;
 
     // Configuration settings for music, sound effects, and game modes
@@ -103,95 +111,61 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
     private boolean gameOverSoundPlayedPlayer1 = false;
     private boolean gameOverSoundPlayedPlayer2 = false;
 
-    // AI manager and Tetris client for external control
+    // AI manager and Tetris clients for external control. The non-blocking client serves both players' requests
     private TetrisAI aiManager;
     private TetrisClient tetrisClient;
+    private AsyncTetrisClient asyncTetrisClient;
 
-    // Variables for managing moves for external player control
-    private int targetX;
-    private int targetX2;
-    private int targetRotation;
-    private int targetRotation2;
-
-    private int[] movesArray;
-    private int[] movesArray2;
-
-    // Updates player-specific game variables based on the provided values
-    private void updatePlayerTypeVariables(int player, int currentX, double currentY, BlockModel currentBlock,
-            int currentBlockIndex, int gameLevel, int score, int deletedRows,
-            int deletedRowsCounter, boolean isGameEnded, boolean[][] board,
-            Color[][] colourBoard) {
-        if (player == 1) {
-            this.currentX = currentX;
-            this.currentY = currentY;
-            this.currentBlock = new BlockModel(currentBlock);
-            this.currentBlockIndex = currentBlockIndex;
-            this.gameLevelPlayer1 = gameLevel;
-            this.scorePlayer1 = score;
-            this.deletedRowsPlayer1 = deletedRows;
-            this.deletedRowsPlayer1Counter = deletedRowsCounter;
-            this.isGameEndedPlayer1 = isGameEnded;
-            this.board = board;
-            this.colourBoard = colourBoard;
-        } else {
-            this.currentX2 = currentX;
-            this.currentY2 = currentY;
-            this.currentBlock2 = new BlockModel(currentBlock);
-            this.currentBlockIndex2 = currentBlockIndex;
-            this.gameLevelPlayer2 = gameLevel;
-            this.scorePlayer2 = score;
-            this.deletedRowsPlayer2 = deletedRows;
-            this.deletedRowsPlayer2Counter = deletedRowsCounter;
-            this.isGameEndedPlayer2 = isGameEnded;
-            this.board2 = board;
-            this.colourBoard2 = colourBoard;
-            this.isDisconnectedPlayer2 = false;
-        }
-    }
+    // Worker pool for AI and external move requests, and the spawn each player's latest request belongs to. The
+    // request ids and targets are only touched by the game loop; move threads hand results back through the mailboxes
+    private MoveRequestService moveRequestService;
+    private long moveRequestIdPlayer1;
+    private long moveRequestIdPlayer2;
+    private final MoveMailbox moveMailbox = new MoveMailbox();
+    private final MoveMailbox moveMailbox2 = new MoveMailbox();
 
     // Constructor that initialises the game with specified field dimensions
     public GameModel(int width, int height, int gameLevel, boolean music, boolean soundEffects, PlayerType typeOfPlayer1, PlayerType typeOfPlayer2, boolean extendMode, TetrisMusicPlayer musicPlayer) {
         this.fieldWidth = width;
         this.aiManager = new TetrisAI();
         this.tetrisClient = new TetrisClient();
+        this.asyncTetrisClient = new AsyncTetrisClient();
+        if (Boolean.getBoolean("tetris.client.binary")) {
+            this.asyncTetrisClient.negotiateBinaryFormat();                    // Opt in, the bundled server only speaks JSON
+        }
+        this.moveRequestService = new MoveRequestService();
+        metrics.setMoveRequestService(moveRequestService);
         this.fieldHeight = height;
         this.music = music;
         this.soundEffects = soundEffects;
         this.typeOfPlayer1 = typeOfPlayer1;
-        this.gameLevelPlayer1 = gameLevel;
         this.initialGameLevel = gameLevel;
         this.extendMode = extendMode;
         this.musicPlayer = musicPlayer;
         this.soundEffectsPlayer = new TetrisSoundEffectsPlayer();
         this.configurationSettings = ConfigurationModel.getInstance();
-        this.scorePlayer1 = 0;
-        this.deletedRowsPlayer1 = 0;
-        this.deletedRowsPlayer1Counter = 0;
-        this.blockList = generateBlocks();
+        this.pieceSeed = pieceSeeds.nextLong();
+        this.engine1 = new GameEngine(width, height, gameLevel, newPieceSequence());
+        this.engine2 = new GameEngine(width, height, gameLevel, newPieceSequence());
+        this.engine1.setListener(new PlayerListener(1));
+        this.engine2.setListener(new PlayerListener(2));
+        createFieldRenderers();
         // If 2 player mode is activated, the second player is initialised and the dimensions of the panel is increased
         if (this.extendMode) {
-            this.gameLevelPlayer2 = gameLevel;
             this.typeOfPlayer2 = typeOfPlayer2;
-            this.scorePlayer2 = 0;
-            this.deletedRowsPlayer2 = 0;
-            this.deletedRowsPlayer2Counter = 0;
-            board2 = new boolean[fieldHeight][fieldWidth];
-            colourBoard2 = new Color[fieldHeight][fieldWidth];
+            engine2.newGame(fieldWidth, fieldHeight, gameLevel, newPieceSequence());
             setPreferredSize(new Dimension(2 * (width * blockSize + BORDER_THICKNESS * 2) + 2 * displayPanel + 20,
                     height * blockSize + BORDER_THICKNESS * 2));
             isPausedPlayer2 = true;
-            isGameEndedPlayer2 = false;
-            spawnBlock(2);
+            engine2.spawnBlock();
         } else {
             // Initialise the game field and block colors
-            board = new boolean[fieldHeight][fieldWidth];
-            colourBoard = new Color[fieldHeight][fieldWidth];
+            engine1.newGame(fieldWidth, fieldHeight, gameLevel, newPieceSequence());
 
             // Set up the game panel size and appearance
             setPreferredSize(new Dimension(fieldWidth * blockSize + BORDER_THICKNESS * 2 + displayPanel,
                     fieldHeight * blockSize + BORDER_THICKNESS * 2));
             isPausedPlayer1 = true;
-            isGameEndedPlayer1 = false;
         }
         initialiseGame(); // Set up the game environment and start the game
     }
@@ -202,428 +176,276 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
         addKeyListener(this); // Register this class as a key listener
         setBorder(BorderFactory.createLineBorder(Color.BLACK, BORDER_THICKNESS)); // Add a black border around the panel
 
-        // Set up the game update timer
-        timer = new Timer(TIMER_DELAY, this);
-
         // Start the game loop
-        timer.start();
+        gameLoop = new GameLoop(this, STEP_DELAY, FRAME_DELAY);
+        gameLoop.start();
+        setActiveRendering(configurationSettings.isActiveRenderingEnabled());
     }
 
-    // Spawns a new block at the top of the game field for the specified player
-    private void spawnBlock(int player) {
-        BlockModel currentBlockRef;
-        boolean[][] boardRef;
-        int currentBlockIndexRef;
-        int currentXRef;
-        double currentYRef;
-        boolean isGameEndedRef;
-
-        // Set variables for player 1 or player 2 based on the passed player value
-        if (player == 1) {
-            currentBlockRef = new BlockModel(currentBlock);
-            currentBlockIndexRef = currentBlockIndex;
-            currentXRef = currentX;
-            currentYRef = currentY;
-            isGameEndedRef = isGameEndedPlayer1;
-            boardRef = board;
-        } else {
-            currentBlockRef = new BlockModel(currentBlock2);
-            currentBlockIndexRef = currentBlockIndex2;
-            currentXRef = currentX2;
-            currentYRef = currentY2;
-            isGameEndedRef = isGameEndedPlayer2;
-            boardRef = board2;
+    // Switches the play area between Swing's repaints and whole frames drawn to a canvas from the game loop. The
+    // canvas is added before the loop starts using it and removed after it stops, so Swing never waits on a frame
+    private void setActiveRendering(boolean enabled) {
+        if (enabled == (activeRenderer != null)) {
+            return;
         }
-
-        // Initialise a new block from the block list and place it in the centre
-        currentBlockRef = new BlockModel(blockList.get(currentBlockIndexRef));
-        currentBlockIndexRef++;
-        currentXRef = (fieldWidth / 2) - (currentBlockRef.getWidth() / 2);
-        currentYRef = 0;
-
-        // Update the game state with the new block
-        if (player == 1){
-            updatePlayerTypeVariables(player, currentXRef, currentYRef, currentBlockRef, currentBlockIndexRef,
-                    gameLevelPlayer1, scorePlayer1, deletedRowsPlayer1, deletedRowsPlayer1Counter, isGameEndedRef,
-                    boardRef, colourBoard);
+        if (enabled) {
+            ActiveRenderer renderer = new ActiveRenderer(VSYNC);
+            setLayout(new BorderLayout());
+            add(renderer, BorderLayout.CENTER);
+            revalidate();
+            synchronized (gameLoop.getLock()) {
+                activeRenderer = renderer;
+                gameLoop.setRenderOnLoopThread(true);
+            }
+            gameLoop.setFrameMillis(VSYNC ? renderer.refreshIntervalMillis(FRAME_DELAY) : FRAME_DELAY);
         } else {
-            updatePlayerTypeVariables(player, currentXRef, currentYRef, currentBlockRef, currentBlockIndexRef,
-                    gameLevelPlayer2, scorePlayer2, deletedRowsPlayer2, deletedRowsPlayer2Counter, isGameEndedRef,
-                    boardRef, colourBoard2);
-        }
-
-        // End game if the new block can't be placed in a valid position
-        if (!isValidPosition(player, currentXRef, currentYRef)) {
-            if (player == 1) {
-                isGameEndedPlayer1 = true;
-            } else {
-                isGameEndedPlayer2 = true;
+            ActiveRenderer renderer = activeRenderer;
+            synchronized (gameLoop.getLock()) {
+                activeRenderer = null;
+                gameLoop.setRenderOnLoopThread(false);
             }
+            gameLoop.setFrameMillis(FRAME_DELAY);
+            remove(renderer);
+            revalidate();
         }
-
-        // Request a move from AI or external player if the player is not human
-        if (!isHumanPlayer(player)) {
-            boolean isExternalPlayer = (player == 1 && typeOfPlayer1 == PlayerType.EXTERNAL) ||
-                    (player == 2 && typeOfPlayer2 == PlayerType.EXTERNAL);
-            requestMove(player, isExternalPlayer);
-        }
+        repaint();
     }
 
-    public boolean isValidPosition(int player, int x, double y) {
-        boolean[][] boardRef;
-        int currentXRef;
-        double currentYRef;
-        BlockModel currentBlockRef;
-
-        // Determine the current player and assign the respective game variables
-        if (player == 1) {
-            boardRef = board;
-            currentXRef = currentX;
-            currentYRef = currentY;
-            currentBlockRef = new BlockModel(currentBlock);
-        } else {
-            boardRef = board2;
-            currentXRef = currentX2;
-            currentYRef = currentY2;
-            currentBlockRef = new BlockModel(currentBlock2);
-        }
+    private GameEngine engine(int player) {
+        return (player == 1) ? engine1 : engine2;
+    }
 
-        int intY = (int) y;
-
-        // Check if the block can move left or right into a valid position
-        if (currentXRef != x) {
-            boolean canMoveRow1 = true;
-            boolean canMoveRow2 = true;
-
-            // Check if the first row is valid for movement
-            for (int i = 0; i < currentBlockRef.getHeight(); i++) {
-                for (int j = 0; j < currentBlockRef.getWidth(); j++) {
-                    if (currentBlockRef.getBlockShape()[i][j]) {
-                        int newX = x + j;
-                        int newY = intY + i;
-                        // Verify if the block is out of bounds or collides with another block
-                        if (newX < 0 || newX >= fieldWidth || newY >= fieldHeight || boardRef[newY][newX]) {
-                            canMoveRow1 = false;
-                            break;
-                        }
-                    }
-                }
-                if (!canMoveRow1)
-                    break;
-            }
+    private DirtyRegionTracker repaintTracker(int player) {
+        return (player == 1) ? repaintTracker1 : repaintTracker2;
+    }
 
-            // Check if the second row is valid for movement
-            intY++;
-            for (int i = 0; i < currentBlockRef.getHeight(); i++) {
-                for (int j = 0; j < currentBlockRef.getWidth(); j++) {
-                    if (currentBlockRef.getBlockShape()[i][j]) {
-                        int newX = x + j;
-                        int newY = intY + i;
-                        // Verify if the block is out of bounds or collides with another block
-                        if (newX < 0 || newX >= fieldWidth || newY >= fieldHeight || boardRef[newY][newX]) {
-                            canMoveRow2 = false;
-                            break;
-                        }
-                    }
-                }
-                if (!canMoveRow2)
-                    break;
-            }
+    private BoardLayer boardLayer(int player) {
+        return (player == 1) ? boardLayer1 : boardLayer2;
+    }
 
-            // Return true if both rows are valid, or adjust the y-coordinate if only the second row is valid
-            if (canMoveRow1 && canMoveRow2) {
-                return true;
-            } else if (!canMoveRow1 && canMoveRow2) {
-                currentYRef = intY;
-                if (player == 1) {
-                    updatePlayerTypeVariables(player, currentXRef, currentYRef, currentBlockRef, currentBlockIndex,
-                            gameLevelPlayer1, scorePlayer1, deletedRowsPlayer1, deletedRowsPlayer1Counter,
-                            isGameEndedPlayer1, boardRef, colourBoard);
-                } else {
-                    updatePlayerTypeVariables(player, currentXRef, currentYRef, currentBlockRef, currentBlockIndex2,
-                            gameLevelPlayer2, scorePlayer2, deletedRowsPlayer2, deletedRowsPlayer2Counter,
-                            isGameEndedPlayer2, boardRef, colourBoard2);
-                }
-                return true;
-            }
-            return false;
-        }
+    // Sets up the board images and repaint regions of each player's board and info panel for the current field size
+    private void createFieldRenderers() {
+        boardLayer1 = new BoardLayer(fieldWidth, fieldHeight, blockSize, getBackground());
+        boardLayer2 = new BoardLayer(fieldWidth, fieldHeight, blockSize, getBackground());
+        int panelHeight = fieldHeight * blockSize + BORDER_THICKNESS * 2;
+        int player2Offset = displayPanel + fieldWidth * blockSize + 20;
+        repaintTracker1 = new DirtyRegionTracker(displayPanel, 0, displayPanel, panelHeight, blockSize,
+                fieldWidth, fieldHeight);
+        repaintTracker2 = new DirtyRegionTracker(displayPanel + player2Offset, player2Offset, displayPanel,
+                panelHeight, blockSize, fieldWidth, fieldHeight);
+    }
 
-        // Check vertical movement within the same column
-        intY = (int) y;
-        for (int i = 0; i < currentBlockRef.getHeight(); i++) {
-            for (int j = 0; j < currentBlockRef.getWidth(); j++) {
-                if (currentBlockRef.getBlockShape()[i][j]) {
-                    int newX = x + j;
-                    int newY = intY + i;
-                    // Verify if the block is out of bounds or collides with another block
-                    if (newX < 0 || newX >= fieldWidth || newY >= fieldHeight || boardRef[newY][newX]) {
-                        return false;
-                    }
-                }
-            }
+    // Repaints only what changed for a player since the last frame, or everything once their game has ended so the
+    // game over message is drawn. The falling block is drawn alpha of the way from its row before the latest step
+    private void repaintChanges(int player, double alpha, DirtyRegionTracker.Repainter repainter) {
+        GameEngine engine = engine(player);
+        if (engine.isGameEnded()) {
+            repaint();
+            return;
         }
-
-        // Check if moving down further collides with blocks or is out of bounds
-        intY++;
-        for (int i = 0; i < currentBlockRef.getHeight(); i++) {
-            for (int j = 0; j < currentBlockRef.getWidth(); j++) {
-                if (currentBlockRef.getBlockShape()[i][j]) {
-                    int newX = x + j;
-                    int newY = intY + i;
-                    // Verify if the block is out of bounds or collides with another block
-                    if (newY >= fieldHeight || boardRef[newY][newX]) {
-                        return false;
-                    }
-                }
-            }
+        double previousY = (player == 1) ? previousYPlayer1 : previousYPlayer2;
+        double currentY = engine.getCurrentY();
+        double drawnY = currentY;
+        if (currentY >= previousY && currentY - previousY <= 1) {                // Not across a new block spawning
+            drawnY = previousY + (currentY - previousY) * alpha;
         }
-        return true;
+        boolean isDisconnected = (player == 1) ? isDisconnectedPlayer1 : isDisconnectedPlayer2;
+        repaintTracker(player).repaintChanges(engine, drawnY, isDisconnected, repainter);
     }
 
-    // Stops the current block and adds it to the board for the given player
-    private void stopBlock(int player) {
-        boolean[][] boardRef;
-        Color[][] colourBoardRef;
-        int currentXRef;
-        double currentYRef;
-        BlockModel currentBlockRef;
+    // Plays the game's sounds and handles move requests for one player's engine
+    private class PlayerListener implements GameEngine.Listener {
+        private final int player;
 
-        // Reference game variables based on the player
-        if (player == 1) {
-            boardRef = board;
-            colourBoardRef = colourBoard;
-            currentXRef = currentX;
-            currentYRef = currentY;
-            currentBlockRef = new BlockModel(currentBlock);
-        } else {
-            boardRef = board2;
-            colourBoardRef = colourBoard2;
-            currentXRef = currentX2;
-            currentYRef = currentY2;
-            currentBlockRef = new BlockModel(currentBlock2);
-        }
+        // Flight recorder event of the block that locked last, committed once the next block spawns, and the rows it
+        // cleared
+        private GameEvents.PieceLocked lockEvent;
+        private int rowsCleared;
 
-        int intY = (int) currentYRef;
+        private PlayerListener(int player) {
+            this.player = player;
+        }
 
-        // Add the current block to the board
-        for (int i = 0; i < currentBlockRef.getHeight(); i++) {
-            for (int j = 0; j < currentBlockRef.getWidth(); j++) {
-                if (currentBlockRef.getBlockShape()[i][j]) {
-                    int newX = currentXRef + j;
-                    int newY = intY + i;
-                    boardRef[newY][newX] = true;
-                    colourBoardRef[newY][newX] = currentBlockRef.getColour();
-                }
+        // Request a move from AI or external player if the player is not human
+        @Override
+        public void onBlockSpawned() {
+            recordSpawn();
+            if (!isHumanPlayer(player)) {
+                boolean isExternalPlayer = (player == 1 && typeOfPlayer1 == PlayerType.EXTERNAL) ||
+                        (player == 2 && typeOfPlayer2 == PlayerType.EXTERNAL);
+                requestMove(player, isExternalPlayer);
             }
         }
 
-        // Update the game variables for the player
-        if (player == 1) {
-            updatePlayerTypeVariables(player, currentXRef, currentYRef, currentBlockRef, currentBlockIndex,
-                    gameLevelPlayer1, scorePlayer1, deletedRowsPlayer1, deletedRowsPlayer1Counter, isGameEndedPlayer1,
-                    boardRef, colourBoardRef);
-        } else {
-            updatePlayerTypeVariables(player, currentXRef, currentYRef, currentBlockRef, currentBlockIndex2,
-                    gameLevelPlayer2, scorePlayer2, deletedRowsPlayer2, deletedRowsPlayer2Counter, isGameEndedPlayer2,
-                    boardRef, colourBoardRef);
-        }
+        @Override
+        public void onBlockSettled() {
+            GameEngine engine = engine(player);
+            lockEvent = new GameEvents.PieceLocked();
+            lockEvent.begin();
+            lockEvent.player = player;
+            lockEvent.shape = engine.getCurrentPiece().getShapeType().name();
+            lockEvent.rotation = engine.getCurrentPiece().getRotationIndex();
+            lockEvent.x = engine.getCurrentX();
+            lockEvent.y = (int) engine.getCurrentY();
+            rowsCleared = 0;
+
+            // The block has locked, so a move still being computed for it is no longer needed
+            moveRequestService.cancel(player);
+            if (player == 1) {
+                moveRequestIdPlayer1++;
+            } else {
+                moveRequestIdPlayer2++;
+            }
 
-        // Play sound effect if enabled
-        if (configurationSettings.isSoundEffectsEnabled()) {
-            soundEffectsPlayer.playSettleBlockSound();
+            // Play sound effect if enabled
+            if (configurationSettings.isSoundEffectsEnabled()) {
+                soundEffectsPlayer.playSettleBlockSound();
+            }
         }
 
-        // Check for any completed rows
-        checkCompletedRow(player);
-
-        // Spawn a new block for the player
-        spawnBlock(player);
-    }
-
-    // Checks for completed rows and removes them from the board
-    private void checkCompletedRow(int player) {
-        boolean[][] boardRef;
-        Color[][] colourBoardRef;
-        int currentXRef;
-        double currentYRef;
-        BlockModel currentBlockRef;
-        int deleteRowsRef;
-        int deleteRowsCountRef;
-        int scoreRef;
-        int gameLevelRef;
-        boolean isGameEndedRef;
-
-        // Reference game variables based on the player
-        if (player == 1) {
-            boardRef = board;
-            colourBoardRef = colourBoard;
-            currentXRef = currentX;
-            currentYRef = currentY;
-            currentBlockRef = new BlockModel(currentBlock);
-            deleteRowsRef = deletedRowsPlayer1;
-            deleteRowsCountRef = deletedRowsPlayer1Counter;
-            scoreRef = scorePlayer1;
-            gameLevelRef = gameLevelPlayer1;
-            isGameEndedRef = isGameEndedPlayer1;
-        } else {
-            boardRef = board2;
-            colourBoardRef = colourBoard2;
-            currentXRef = currentX2;
-            currentYRef = currentY2;
-            currentBlockRef = new BlockModel(currentBlock2);
-            deleteRowsRef = deletedRowsPlayer2;
-            deleteRowsCountRef = deletedRowsPlayer2Counter;
-            scoreRef = scorePlayer2;
-            gameLevelRef = gameLevelPlayer2;
-            isGameEndedRef = isGameEndedPlayer2;
+        // Play erase row sound if enabled
+        @Override
+        public void onRowCleared() {
+            rowsCleared++;
+            if (configurationSettings.isSoundEffectsEnabled()) {
+                soundEffectsPlayer.playEraseRowSound();
+            }
         }
 
-        int deletedRowsInACheck = 0;
-
-        // Iterate over the rows and check for fully completed rows
-        for (int i = 0; i < fieldHeight; i++) {
-            boolean fullRow = true;
-
-            // Check if a row is completely filled
-            for (int j = 0; j < fieldWidth; j++) {
-                if (!boardRef[i][j]) {
-                    fullRow = false;
-                    break;
-                }
+        // Stops the music once both players are out, and plays the game over sound once per game
+        @Override
+        public void onGameOver() {
+            boolean otherPlayerEnded = engine(player == 1 ? 2 : 1).isGameEnded();
+            if (configurationSettings.isMusicEnabled() && otherPlayerEnded) {
+                musicPlayer.stopMusic();
             }
-
-            // If a full row is found, delete it and shift rows down
-            if (fullRow) {
-                deletedRowsInACheck++;
-                for (int j = i; j > 0; j--) {
-                    System.arraycopy(boardRef[j - 1], 0, boardRef[j], 0, fieldWidth);
-                    System.arraycopy(colourBoardRef[j - 1], 0, colourBoardRef[j], 0, fieldWidth);
+            boolean soundPlayed = (player == 1) ? gameOverSoundPlayedPlayer1 : gameOverSoundPlayedPlayer2;
+            if (configurationSettings.isSoundEffectsEnabled() && !soundPlayed) {
+                if (otherPlayerEnded) {
+                    soundEffectsPlayer.playGameOverSound();
+                } else {
+                    soundEffectsPlayer.playGameOverSound2();
                 }
-                boardRef[0] = new boolean[fieldWidth];
-                colourBoardRef[0] = new Color[fieldWidth];
-
-                // Play erase row sound if enabled
-                if (configurationSettings.isSoundEffectsEnabled()) {
-                    soundEffectsPlayer.playEraseRowSound();
+                if (player == 1) {
+                    gameOverSoundPlayedPlayer1 = true;
+                } else {
+                    gameOverSoundPlayedPlayer2 = true;
                 }
             }
+            repaint();
         }
 
-        // Update the score based on the number of deleted rows
-        deleteRowsRef += deletedRowsInACheck;
-        if (deletedRowsInACheck == 1) {
-            scoreRef += 100;
-        } else if (deletedRowsInACheck == 2) {
-            scoreRef += 300;
-        } else if (deletedRowsInACheck == 3) {
-            scoreRef += 600;
-        } else if (deletedRowsInACheck == 4) {
-            scoreRef += 1000;
+        @Override
+        public void onRowsChanged(int fromRow, int toRow) {
+            repaintTracker(player).rowsChanged(fromRow, toRow);
+            boardLayer(player).rowsChanged(fromRow, toRow);
         }
 
-        // Update the game level after a certain number of rows
-        deleteRowsCountRef += deletedRowsInACheck;
-        if (deleteRowsCountRef >= 10 && !isGameEndedRef) {
-            if (gameLevelRef < 10) {
-                gameLevelRef++;
+        // Commits the previous block's lock and cleared rows, now that its rows are cleared, and the new block's spawn
+        private void recordSpawn() {
+            GameEngine engine = engine(player);
+            if (lockEvent != null) {
+                lockEvent.linesCleared = rowsCleared;
+                lockEvent.commit();
+                lockEvent = null;
+            }
+            if (rowsCleared > 0) {
+                GameEvents.LinesCleared linesCleared = new GameEvents.LinesCleared();
+                if (linesCleared.shouldCommit()) {
+                    linesCleared.player = player;
+                    linesCleared.lines = rowsCleared;
+                    linesCleared.score = engine.getScore();
+                    linesCleared.level = engine.getGameLevel();
+                    linesCleared.commit();
+                }
+                rowsCleared = 0;
+            }
+            GameEvents.PieceSpawned spawned = new GameEvents.PieceSpawned();
+            if (spawned.shouldCommit()) {
+                spawned.player = player;
+                spawned.shape = engine.getCurrentPiece().getShapeType().name();
+                spawned.level = engine.getGameLevel();
+                spawned.commit();
             }
-            deleteRowsCountRef -= 10;
         }
+    }
 
-        // Update the game variables after row completion
-        if (player == 1) {
-            updatePlayerTypeVariables(player, currentXRef, currentYRef, currentBlockRef, currentBlockIndex,
-                    gameLevelRef, scoreRef, deleteRowsRef, deleteRowsCountRef, isGameEndedRef,
-                    boardRef, colourBoardRef);
-        } else {
-            updatePlayerTypeVariables(player, currentXRef, currentYRef, currentBlockRef, currentBlockIndex2,
-                    gameLevelRef, scoreRef, deleteRowsRef, deleteRowsCountRef, isGameEndedRef,
-                    boardRef, colourBoardRef);
-        }
+    public boolean isValidPosition(int player, int x, double y) {
+        return engine(player).isValidPosition(x, y);
     }
 
     // Adjusts the y-coordinate when rotating specific block shapes
     public double newShapeY(int player, double y) {
-        BlockModel currentBlockRef;
-        if (player == 1) {
-            currentBlockRef = new BlockModel(currentBlock);
-        } else {
-            currentBlockRef = new BlockModel(currentBlock2);
-        }
-
-        // Handle y-adjustments for the Straight and L-shaped blocks
-        if (currentBlockRef.getShapeType() == ShapeType.STRAIGHT) {
-            if (currentBlockRef.getRotationIndex() == 2) {
-                y -= 3;
-            } else if (currentBlockRef.getRotationIndex() == 3) {
-                y += 3;
-            }
-        } else if (currentBlockRef.getShapeType() == ShapeType.L_SHAPE
-                || currentBlockRef.getShapeType() == ShapeType.REVERSE_L_SHAPE) {
-            switch (currentBlockRef.getRotationIndex()) {
-                case 1, 2 -> y -= 1;
-                case 3 -> y += 2;
-            }
-        }
-        return y;
+        return engine(player).newShapeY(y);
     }
 
     // Adjusts the x-coordinate when rotating specific block shapes
     public int newShapeX(int player, int x) {
-        BlockModel currentBlockRef;
-        if (player == 1) {
-            currentBlockRef = new BlockModel(currentBlock);
-        } else {
-            currentBlockRef = new BlockModel(currentBlock2);
+        return engine(player).newShapeX(x);
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (activeRenderer != null) {
+            return;                                                             // The canvas covers the play area
         }
+        synchronized (gameLoop.getLock()) {
+            drawGame(g);
+        }
+    }
 
-        // Handle x-adjustments for the Straight and L-shaped blocks
-        if (currentBlockRef.getShapeType() == ShapeType.STRAIGHT) {
-            switch (currentBlockRef.getRotationIndex()) {
-                case 1 -> x -= 3;
-                case 2 -> x += 3;
-            }
-        } else if (currentBlockRef.getShapeType() == ShapeType.L_SHAPE
-                || currentBlockRef.getShapeType() == ShapeType.REVERSE_L_SHAPE) {
-            switch (currentBlockRef.getRotationIndex()) {
-                case 0, 1 -> x -= 1;
-                case 2 -> x += 2;
+    // Draws a whole frame onto the active renderer's canvas, which sits inside the border
+    private void paintFrame(Graphics g) {
+        Insets insets = getInsets();
+        g.translate(-insets.left, -insets.top);
+        paintComponent(g);
+        paintBorder(g);
+        drawGame(g);
+    }
+
+    private void drawGame(Graphics g) {
+        long start = System.nanoTime();
+        GameEvents.Repaint event = new GameEvents.Repaint();
+        event.begin();
+        drawLayers(g);
+        metrics.getPaint().recordSince(start);
+        event.end();
+        if (event.shouldCommit()) {
+            Rectangle clip = g.getClipBounds();
+            event.activeRendering = activeRenderer != null;
+            if (clip != null) {
+                event.clipX = clip.x;
+                event.clipY = clip.y;
+                event.clipWidth = clip.width;
+                event.clipHeight = clip.height;
             }
+            event.commit();
         }
-        return x;
     }
 
-    @Override
-    public void paint(Graphics g) {
-        super.paint(g);
+    private void drawLayers(Graphics g) {
         drawBackground(g);  // Draws the background of the game field
-        drawGrid(g, 0);  // Draws grid lines for player 1
-        drawBoard(g, 1, 0);  // Draws placed blocks for player 1
+        boardLayer1.draw(g, engine1, displayPanel, 0);  // Draws grid lines and placed blocks for player 1
         drawCurrentBlock(g, 1, 0);  // Draws current falling block for player 1
-        drawDisplayInfo(g, 1, 0);  // Displays player 1's game info
+        if (g.hitClip(0, 0, displayPanel, getHeight())) {
+            drawDisplayInfo(g, 1, 0);  // Displays player 1's game info, if it is being repainted
+            if (metricsOverlay) {
+                drawMetricsOverlay(g);
+            }
+        }
 
         if (extendMode) {
             // Draws elements for player 2 in extended mode
             int x = displayPanel + fieldWidth * blockSize + 20;
-            drawGrid(g, x);
-            drawBoard(g, 2, x);
+            boardLayer2.draw(g, engine2, displayPanel + x, 0);
             drawCurrentBlock(g, 2, x);
-            drawDisplayInfo(g, 2, x);
+            if (g.hitClip(x, 0, displayPanel, getHeight())) {
+                drawDisplayInfo(g, 2, x);
+            }
 
             // Handles game over or paused state for player 2
-            if (isGameEndedPlayer2) {
-                if (configurationSettings.isMusicEnabled() && isGameEndedPlayer1) {
-                    musicPlayer.stopMusic();
-                }
-                if (configurationSettings.isSoundEffectsEnabled() && !gameOverSoundPlayedPlayer2) {
-                    if (isGameEndedPlayer1) {
-                        soundEffectsPlayer.playGameOverSound();
-                    } else {
-                        soundEffectsPlayer.playGameOverSound2();
-                    }
-                    gameOverSoundPlayedPlayer2 = true;
-                }
+            if (engine2.isGameEnded()) {
                 drawCenteredMessage(g, "Game Over", Color.RED, 30, 2 * displayPanel + fieldWidth * blockSize + 20 + fieldWidth * blockSize / 2, 0);
             } else if (isPausedPlayer2) {
                 drawCenteredMessage(g, "Game Paused", Color.BLUE, 30, 2 * displayPanel + fieldWidth * blockSize + 20 + fieldWidth * blockSize / 2, 0);
@@ -632,18 +454,7 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
         }
 
         // Handles game over or paused state for player 1
-        if (isGameEndedPlayer1) {
-            if (configurationSettings.isMusicEnabled() && isGameEndedPlayer2) {
-                musicPlayer.stopMusic();
-            }
-            if (configurationSettings.isSoundEffectsEnabled() && !gameOverSoundPlayedPlayer1) {
-                if (isGameEndedPlayer2) {
-                    soundEffectsPlayer.playGameOverSound();
-                } else {
-                    soundEffectsPlayer.playGameOverSound2();
-                }
-                gameOverSoundPlayedPlayer1 = true;
-            }
+        if (engine1.isGameEnded()) {
             drawCenteredMessage(g, "Game Over", Color.RED, 30, displayPanel + fieldWidth * blockSize / 2, 0);
         } else if (isPausedPlayer1) {
             drawCenteredMessage(g, "Game Paused", Color.BLUE, 30, displayPanel + fieldWidth * blockSize / 2, 0);
@@ -651,6 +462,24 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
         }
     }
 
+    // Frame rate, frame time and AI search time percentiles, and waiting move requests, above player 1's game info
+    private void drawMetricsOverlay(Graphics g) {
+        String fps = String.format("FPS: %d  (p50/p99 ms)", metrics.getFramesPerSecond());
+        String frameTime = String.format("Frame: %.1f / %.1f",
+                metrics.getFrame().getPercentileMillis(50), metrics.getFrame().getPercentileMillis(99));
+        String aiTime = String.format("AI: %.1f / %.1f  q %d",
+                metrics.getAiDecision().getPercentileMillis(50), metrics.getAiDecision().getPercentileMillis(99),
+                metrics.getMoveRequestQueueDepth());
+        drawDisplayMessages(g, fps, 10, 0, -38, Color.DARK_GRAY);
+        drawDisplayMessages(g, frameTime, 10, 0, -26, Color.DARK_GRAY);
+        drawDisplayMessages(g, aiTime, 10, 0, -14, Color.DARK_GRAY);
+    }
+
+    public void setMetricsOverlay(boolean metricsOverlay) {
+        this.metricsOverlay = metricsOverlay;
+        repaint(0, 0, displayPanel, OVERLAY_HEIGHT);
+    }
+
     private void drawDisplayInfo(Graphics g, int playerNumber, int xOffset) {
         String gameInfo = "Game Info (Player " + playerNumber + ")";
         drawDisplayMessages(g, gameInfo, 10, xOffset, 0, Color.BLACK); // Draws player number
@@ -661,6 +490,8 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
             player_type = player_type.concat("Human");
         } else if (playerType == PlayerType.AI) {
             player_type = player_type.concat("AI");
+        } else if (playerType == PlayerType.AI_LOOKAHEAD) {
+            player_type = player_type.concat("AI (Lookahead)");
         } else {
             player_type = player_type.concat("External");
         }
@@ -669,15 +500,15 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
         String initialLevel = "Initial Level: " + initialGameLevel;
         drawDisplayMessages(g, initialLevel, 10, xOffset, 60, Color.BLACK); // Draws the initial level
 
-        int currentGameLevel = (playerNumber == 1) ? gameLevelPlayer1 : gameLevelPlayer2;
+        int currentGameLevel = engine(playerNumber).getGameLevel();
         String currentLevel = "Current Level: " + currentGameLevel;
         drawDisplayMessages(g, currentLevel, 10, xOffset, 90, Color.BLACK); // Draws the current level
 
-        int deletedRows = (playerNumber == 1) ? deletedRowsPlayer1 : deletedRowsPlayer2;
+        int deletedRows = engine(playerNumber).getDeletedRows();
         String lineErased = "Line Erased: " + deletedRows;
         drawDisplayMessages(g, lineErased, 10, xOffset, 120, Color.BLACK); // Draws the number of deleted rows
 
-        int currentScore = (playerNumber == 1) ? scorePlayer1 : scorePlayer2;
+        int currentScore = engine(playerNumber).getScore();
         String currentScoreStr = "Score: " + currentScore;
         drawDisplayMessages(g, currentScoreStr, 10, xOffset, 150, Color.BLACK); // Draws the current score
 
@@ -728,106 +559,29 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
         g.fillRect(0, 0, getWidth(), getHeight());
     }
 
-    // Method to draw the grid lines on the game field
-    private void drawGrid(Graphics g, int xOffset) {
-        g.setColor(Color.GRAY);
-        for (int i = 0; i <= fieldHeight; i++) {
-            g.drawLine(displayPanel + xOffset, i * blockSize, fieldWidth * blockSize + displayPanel + xOffset,
-                    i * blockSize);
-        }
-        for (int j = 0; j <= fieldWidth; j++) {
-            g.drawLine(j * blockSize + displayPanel + xOffset, 0, j * blockSize + displayPanel + xOffset,
-                    fieldHeight * blockSize);
-        }
-    }
-
-    // Method to draw the blocks that have been placed on the board
-    private void drawBoard(Graphics g, int player, int xOffset) {
-        boolean[][] boardRef;
-        Color[][] colourBoardRef;
-        if (player == 1) {
-            boardRef = board;
-            colourBoardRef = colourBoard;
-        } else {
-            boardRef = board2;
-            colourBoardRef = colourBoard2;
-        }
-
-        for (int i = 0; i < fieldHeight; i++) {
-            for (int j = 0; j < fieldWidth; j++) {
-                if (boardRef[i][j]) {
-                    int x = j * blockSize + displayPanel + xOffset;
-                    int y = i * blockSize;
-
-                    Color blockColor = colourBoardRef[i][j];
-
-                    // Draw the main block color
-                    g.setColor(blockColor);
-                    g.fillRect(x, y, blockSize, blockSize);
-
-                    drawEmbossedEffect(g, x, y, blockSize, blockColor);
-
-                    // Draw internal grid lines for each block
-                    g.setColor(Color.GRAY);
-                    g.drawRect(x, y, blockSize, blockSize);
-                }
-            }
-        }
-    }
-
     // Method to draw the current falling block
     private void drawCurrentBlock(Graphics g, int player, int xOffset) {
-        boolean[][] boardRef;
-        Color[][] colourBoardRef;
-        BlockModel currentBlockRef;
-        int currentXRef;
-        double currentYRef;
-        if (player == 1) {
-            boardRef = board;
-            colourBoardRef = colourBoard;
-            currentBlockRef = new BlockModel(currentBlock);
-            currentXRef = currentX;
-            currentYRef = currentY;
-        } else {
-            boardRef = board2;
-            colourBoardRef = colourBoard2;
-            currentBlockRef = new BlockModel(currentBlock2);
-            currentXRef = currentX2;
-            currentYRef = currentY2;
+        // Draw the block where the last frame placed it, or where the engine has it before the first frame
+        DirtyRegionTracker tracker = repaintTracker(player);
+        GameEngine engine = engine(player);
+        PieceRotation currentPiece = tracker.getDrawnPiece();
+        int currentXRef = tracker.getDrawnX();
+        double currentYRef = tracker.getDrawnY();
+        if (currentPiece == null) {
+            currentPiece = engine.getCurrentPiece();
+            currentXRef = engine.getCurrentX();
+            currentYRef = engine.getCurrentY();
         }
-
-        Color blockColor = currentBlockRef.getColour();
-        for (int i = 0; i < currentBlockRef.getHeight(); i++) {
-            for (int j = 0; j < currentBlockRef.getWidth(); j++) {
-                if (currentBlockRef.getBlockShape()[i][j]) {
-                    int x = (currentXRef + j) * blockSize + displayPanel + xOffset;
-                    int y = (int) ((currentYRef + i) * blockSize);
-
-                    // Draw the main block color
-                    g.setColor(blockColor);
-                    g.fillRect(x, y, blockSize, blockSize);
-
-                    drawEmbossedEffect(g, x, y, blockSize, blockColor);
-
-                    // Draw internal grid lines for each block
-                    g.setColor(Color.GRAY);
-                    g.drawRect(x, y, blockSize, blockSize);
-                }
-            }
+        if (currentPiece == null) {
+            return;                                                             // No block has spawned yet
         }
-    }
 
-    // Method to draw an embossed effect on blocks
-    private void drawEmbossedEffect(Graphics g, int x, int y, int size, Color blockColor) {
-        // Draw the highlight effect
-        g.setColor(blockColor.brighter());
-        g.drawLine(x, y, x + size - 1, y); // Top edge
-        g.drawLine(x, y, x, y + size - 1); // Left edge
-
-        // Draw the shadow effect
-        g.setColor(blockColor.darker());
-        g.drawLine(x + size - 1, y, x + size - 1, y + size - 1); // Right edge
-        g.drawLine(x, y + size - 1, x + size - 1, y + size - 1); // Bottom edge
+        Color blockColor = currentPiece.getColour();
+        for (int cell = 0; cell < currentPiece.getCellCount(); cell++) {
+            int x = (currentXRef + currentPiece.getCellX(cell)) * blockSize + displayPanel + xOffset;
+            int y = (int) ((currentYRef + currentPiece.getCellY(cell)) * blockSize);
+            BlockTiles.drawBlock(g, blockColor, x, y, blockSize);
+        }
     }
 
     // Method to draw a centered message on the game field for game ended and paused
@@ -835,7 +589,7 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
     private void drawCenteredMessage(Graphics g, String message, Color color, int fontSize, int xOffset, int yOffset) {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.5f)); // Set transparency
-        g2d.setFont(new Font("Arial", Font.BOLD, fontSize)); // Set font and size
+        g2d.setFont(messageFont(fontSize)); // Set font and size
         g2d.setColor(color); // Set color for the message
 
         FontMetrics metrics = g2d.getFontMetrics();
@@ -849,7 +603,7 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
     // Draws a small black Arial message for the display panel for each player
     private void drawDisplayMessages(Graphics g, String message, int fontSize, int xOffset, int yOffset, Color colour) {
         Graphics2D g2d = (Graphics2D) g;
-        g2d.setFont(new Font("Arial", Font.BOLD, fontSize)); // Set font and size
+        g2d.setFont(messageFont(fontSize)); // Set font and size
         // g2d.setColor(Color.BLACK);
         g2d.setColor(colour); // Set color for the message
 
@@ -860,62 +614,39 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
         g2d.drawString(message, x, y); // Draw the message
     }
 
+    // Returns the bold Arial font of a size, created the first time it is used
+    private static Font messageFont(int fontSize) {
+        return MESSAGE_FONTS.computeIfAbsent(fontSize, size -> new Font("Arial", Font.BOLD, size));
+    }
+
     // Draws the next tetromino to be dropped
     private void drawNextBlock(Graphics g, int player, int xOffset, int yOffset){
-        boolean[][] boardRef;
-        Color[][] colourBoardRef;
-        BlockModel currentBlockRef;
-        int currentBlockIndexRef;
-        int currentXRef;
-        double currentYRef;
-        if (player == 1){
-            boardRef = board;
-            colourBoardRef = colourBoard;
-            currentBlockRef = new BlockModel(currentBlock);
-            currentBlockIndexRef = currentBlockIndex;
-            currentXRef = currentX;
-            currentYRef = currentY;
-        }
-        else{
-            boardRef = board2;
-            colourBoardRef = colourBoard2;
-            currentBlockRef = new BlockModel(currentBlock2);
-            currentBlockIndexRef = currentBlockIndex2;
-            currentXRef = currentX2;
-            currentYRef = currentY2;
-        }
-
-        // Gets the next tetromino from the blockList
-        int nextIndex = currentBlockIndexRef;
-        BlockModel nextBlock = new BlockModel(blockList.get(nextIndex));
-        Color blockColor = nextBlock.getColour();
+        // Gets the next tetromino from the player's sequence
+        PieceRotation nextPiece = engine(player).getNextPiece();
+        Color blockColor = nextPiece.getColour();
         // Draws the next block
-        for (int i = 0; i < nextBlock.getHeight(); i++) {
-            for (int j = 0; j < nextBlock.getWidth(); j++) {
-                if (nextBlock.getBlockShape()[i][j]) {
-                    int x = j * blockSize + xOffset;
-                    int y = i * blockSize + yOffset;
-
-                    // Draw the main block color
-                    g.setColor(blockColor);
-                    g.fillRect(x, y, blockSize, blockSize);
-
-                    drawEmbossedEffect(g, x, y, blockSize, blockColor);
-
-                    // Draw internal grid lines for each block
-                    g.setColor(Color.GRAY);
-                    g.drawRect(x, y, blockSize, blockSize); // TODO: Consider combining this with similar code in drawBoard for DRYness
-                }
-            }
+        for (int cell = 0; cell < nextPiece.getCellCount(); cell++) {
+            int x = nextPiece.getCellX(cell) * blockSize + xOffset;
+            int y = nextPiece.getCellY(cell) * blockSize + yOffset;
+            BlockTiles.drawBlock(g, blockColor, x, y, blockSize);
         }
     }
 
-    // Method to handle key press events for game controls
+    // Method to handle key press events for game controls. Keys are handled on the game loop thread, between steps
     @Override
     public void keyPressed(KeyEvent e) {
+        int keyCode = e.getKeyCode();
+        gameLoop.post(() -> handleKey(keyCode));
+    }
+
+    private void handleKey(int keyCode) {
+        if (keyCode == KeyEvent.VK_F3) {
+            setMetricsOverlay(!metricsOverlay);
+            return;
+        }
         if (extendMode){
             // Player two - PAUSE
-            if (e.getKeyCode() == KeyEvent.VK_Q) {
+            if (keyCode == KeyEvent.VK_Q) {
                 if (isPausedPlayer2) {
                     resumeGame2();
                 } else {
@@ -926,73 +657,50 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
             }
 
             // Player two - GAME CONTROLS
-            if (!isPausedPlayer2 && !isGameEndedPlayer2) {
-                int keyCode = e.getKeyCode();
-                int newX = currentX2;
-                double newY = currentY2;
-                double oldY = currentY2;
-                int oldConfigIndex = currentBlock2.rotationIndex;
-                boolean[][] oldShape = currentBlock2.getBlockShape();
-                boolean signal = false;
-
+            if (!isPausedPlayer2 && !engine2.isGameEnded()) {
                 switch (keyCode) {
                     case KeyEvent.VK_W -> {                                            // Rotate block
-                        newX = newShapeX(2, newX);
-                        newY = newShapeY(2, newY);
-                        currentBlock2.setBlockShape(currentBlock2.nextShape());
-                        if (!isValidPosition(2, newX, newY)) {
-                            currentBlock2.setBlockShape(oldShape);
-                            currentBlock2.rotationIndex = oldConfigIndex;
-                        } else {
-                            currentX2 = newX;
-                            currentY2 = newY;
-                        }
-                        signal = true;
+                        engine2.rotate();
                         if (configurationSettings.isSoundEffectsEnabled()) {
                             soundEffectsPlayer.playRotateBlockSound();  // Play sound when rotating
                         }
                     }
                     case KeyEvent.VK_A -> {  // Move block left
-                        newX--;
                         if (configurationSettings.isSoundEffectsEnabled()) {
                             soundEffectsPlayer.playMoveBlockSound();  // Play sound when moving left
                         }
+                        if (engine2.moveLeft()) {
+                            changedPlayer2 = true;
+                        }
                     }
                     case KeyEvent.VK_D -> {  // Move block right
-                        newX++;
                         if (configurationSettings.isSoundEffectsEnabled()) {
                             soundEffectsPlayer.playMoveBlockSound();  // Play sound when moving right
                         }
+                        if (engine2.moveRight()) {
+                            changedPlayer2 = true;
+                        }
                     }
-                    case KeyEvent.VK_S -> {  // Move block down faster
-                        newY += 0.5;
+                    case KeyEvent.VK_S -> {  // Move block down faster, stopping it when it can't move further
                         if (configurationSettings.isSoundEffectsEnabled()) {
                             soundEffectsPlayer.playMoveBlockSound();  // Play sound when moving down
                         }
+                        if (engine2.softDrop()) {
+                            changedPlayer2 = true;
+                        }
                     }
                 }
-
-                if (isValidPosition(2, newX, newY) && !signal) {
-                    currentX2 = newX;
-                    if (currentY2 == oldY) {
-                        currentY2 = newY;
-                    }
-                    repaint();
-                } else if (keyCode == KeyEvent.VK_S && !signal) {
-                    currentY2 = newY;
-                    stopBlock(2);
-                }
             }
 
-            if (isGameEndedPlayer2) {
+            if (engine2.isGameEnded()) {
                 repaint();
             }
 
         }
 
         // Music toggles
-        if (!(isGameEndedPlayer1 && isGameEndedPlayer2)) {
-            if (e.getKeyCode() == KeyEvent.VK_M) {
+        if (!(engine1.isGameEnded() && engine2.isGameEnded())) {
+            if (keyCode == KeyEvent.VK_M) {
                 if (configurationSettings.isMusicEnabled()) {
                     configurationSettings.setMusic(false);
                     musicPlayer.stopMusic();
@@ -1005,7 +713,7 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
             }
 
             // Sound effect toggle
-            if (e.getKeyCode() == KeyEvent.VK_SPACE) {
+            if (keyCode == KeyEvent.VK_SPACE) {
                 if (configurationSettings.isSoundEffectsEnabled()) {
                     configurationSettings.setSoundEffects(false);
                 } else {
@@ -1017,7 +725,7 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
         }
 
         // Handle pause and resume when 'P' is pressed
-        if (e.getKeyCode() == KeyEvent.VK_P) {
+        if (keyCode == KeyEvent.VK_P) {
             if (isPausedPlayer1) {
                 resumeGame();
             } else {
@@ -1027,64 +735,44 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
             return;
         }
         // Handle movement and rotation if the game is running
-        if (!isPausedPlayer1 && !isGameEndedPlayer1) {
-            int keyCode = e.getKeyCode();
-            int newX = currentX;
-            double newY = currentY;
-            double oldY = currentY;
-            int oldConfigIndex = currentBlock.rotationIndex;
-            boolean[][] oldShape = currentBlock.getBlockShape();
-
+        if (!isPausedPlayer1 && !engine1.isGameEnded()) {
             switch (keyCode) {
                 case KeyEvent.VK_UP -> {                                            // Rotate block
-                    newX = newShapeX(1, newX);
-                    newY = newShapeY(1, newY);
-                    currentBlock.setBlockShape(currentBlock.nextShape());
-                    if (!isValidPosition(1, newX, newY)) {
-                        currentBlock.setBlockShape(oldShape);
-                        currentBlock.rotationIndex = oldConfigIndex;
-                    } else {
-                        currentX = newX;
-                        currentY = newY;
-                    }
+                    engine1.rotate();
                     if (configurationSettings.isSoundEffectsEnabled()) {
                         soundEffectsPlayer.playRotateBlockSound();  // Play sound when rotating
                     }
                     return;
                 }
                 case KeyEvent.VK_LEFT -> {  // Move block left
-                    newX--;
                     if (configurationSettings.isSoundEffectsEnabled()) {
                         soundEffectsPlayer.playMoveBlockSound();  // Play sound when moving left
                     }
+                    if (engine1.moveLeft()) {
+                        changedPlayer1 = true;
+                    }
                 }
                 case KeyEvent.VK_RIGHT -> {  // Move block right
-                    newX++;
                     if (configurationSettings.isSoundEffectsEnabled()) {
                         soundEffectsPlayer.playMoveBlockSound();  // Play sound when moving right
                     }
+                    if (engine1.moveRight()) {
+                        changedPlayer1 = true;
+                    }
                 }
-                case KeyEvent.VK_DOWN -> {  // Move block down faster
-                    newY += 0.5;
+                case KeyEvent.VK_DOWN -> {  // Move block down faster, stopping it when it can't move further
                     if (configurationSettings.isSoundEffectsEnabled()) {
                         soundEffectsPlayer.playMoveBlockSound();  // Play sound when moving down
                     }
+                    if (engine1.softDrop()) {
+                        changedPlayer1 = true;
+                    }
                 }
-            }
-
-            if (isValidPosition(1, newX, newY)) {
-                currentX = newX;
-                if (currentY == oldY) {
-                    currentY = newY;
-                }
-                repaint();
-            } else if (keyCode == KeyEvent.VK_DOWN) {
-                currentY = newY;
-                stopBlock(1);
+                default -> repaint();
             }
         }
 
-        if (isGameEndedPlayer1) {
+        if (engine1.isGameEnded()) {
             repaint();
         }
     }
@@ -1101,76 +789,82 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
         // This method is only here because we implement KeyListener
     }
 
-    // Method to handle game updates via the timer
+    // Advances each running game by one fixed step, on the game loop thread
     @Override
-    public void actionPerformed(ActionEvent e) {
-        if (extendMode){
-            if (!isPausedPlayer2 && !isGameEndedPlayer2) {                                            // Update the game only if it's not paused or ended
-                requestFocus();
-
-                double nonHumanDownSpeed = 0.0;
-
-                if (!isHumanPlayer(2)) {
-                    if (currentY2 > 2) { // Magic number
-                        if (currentBlock2.getRotationIndex() != targetRotation2) { // rotate first
-                            rotateBlockPlayer2();
-                        } else if (currentX2 != targetX2) {
-                            if (currentX2 < targetX2) {
-                                currentX2++;
-                            } else if (currentX2 > targetX2) {
-                                currentX2--;
-                            }
-                        } else {
-                            nonHumanDownSpeed = 0.2;
-                        }
-                    }
-                }
+    public void step() {
+        long start = System.nanoTime();
+        stepPlayers();
+        metrics.getTick().recordSince(start);
+    }
 
-                double speed = 0.02 + (gameLevelPlayer2 * 0.01);                               // Calculate the block drop speed (TODO: Confirm if this speed calculation is appropriate)
-                double newY = currentY2 + speed + nonHumanDownSpeed;
-                if (isValidPosition(2, currentX2, newY)) {
-                    currentY2 = newY;
-                } else {
-                    currentY2 = newY;
-                    stopBlock(2);                                                        // Stop the block when it can't move further down
+    private void stepPlayers() {
+        if (extendMode){
+            if (!isPausedPlayer2 && !engine2.isGameEnded()) {                                            // Update the game only if it's not paused or ended
+                boolean computerControlled = !isHumanPlayer(2);
+                if (computerControlled) {
+                    takePlannedMove(2);
                 }
-                repaint();
+                previousYPlayer2 = engine2.getCurrentY();
+                engine2.tick(computerControlled);
+                changedPlayer2 = true;
             }
         }
-        if (!isPausedPlayer1 && !isGameEndedPlayer1) {                                            // Update the game only if it's not paused or ended
-            requestFocus();
-            double nonHumanDownSpeed = 0.0;
-            if (!isHumanPlayer(1)) {
-                if (currentY > 2) {
-                if (currentBlock.getRotationIndex() != targetRotation) { // rotate first
-                    rotateBlockPlayer1();
-                } else if (currentX != targetX) {
-                    if (currentX < targetX) {
-                        currentX++;
-                    } else if (currentX > targetX) {
-                        currentX--;
-                    }
-                } else {
-                    nonHumanDownSpeed = 0.2;
-                }
-                }
+        if (!isPausedPlayer1 && !engine1.isGameEnded()) {                                            // Update the game only if it's not paused or ended
+            boolean computerControlled = !isHumanPlayer(1);
+            if (computerControlled) {
+                takePlannedMove(1);
             }
-            double speed = 0.02 + (gameLevelPlayer1 * 0.01);                               // Calculate the block drop speed (TODO: Confirm if this speed calculation is appropriate)
-            double newY = currentY + speed + nonHumanDownSpeed;
-            if (isValidPosition(1, currentX, newY)) {
-                currentY = newY;
-            } else {
-                currentY = newY;
-                stopBlock(1);                                                        // Stop the block when it can't move further down
+            previousYPlayer1 = engine1.getCurrentY();
+            engine1.tick(computerControlled);
+            changedPlayer1 = true;
+        }
+    }
+
+    // Repaints what changed since the last frame, on the Swing thread. Running games are repainted every frame, as
+    // their falling blocks move between steps too. When rendering actively this runs on the game loop thread and
+    // draws the whole frame instead
+    @Override
+    public void render(double alpha) {
+        long now = System.nanoTime();
+        metrics.frameRendered(now);
+        boolean running1 = !isPausedPlayer1 && !engine1.isGameEnded();
+        boolean running2 = extendMode && !isPausedPlayer2 && !engine2.isGameEnded();
+        DirtyRegionTracker.Repainter repainter = (activeRenderer != null) ? NO_REPAINT : this::repaint;
+        if (running1 || running2) {
+            if (activeRenderer == null) {
+                requestFocus();
+            } else if (!isFocusOwner()) {
+                SwingUtilities.invokeLater(this::requestFocus);
             }
-            repaint();
+        }
+        if (changedPlayer2 || running2) {
+            repaintChanges(2, alpha, repainter);
+            changedPlayer2 = false;
+        }
+        if (changedPlayer1 || running1) {
+            repaintChanges(1, alpha, repainter);
+            changedPlayer1 = false;
+        }
+        if (metricsOverlay && activeRenderer == null) {
+            repaintMetricsOverlay(now);
+        }
+        if (activeRenderer != null) {
+            activeRenderer.renderFrame(this::paintFrame);
+        }
+    }
+
+    // The overlay's numbers change continuously, so without active rendering it is repainted a few times a second
+    private void repaintMetricsOverlay(long now) {
+        if (now - lastOverlayRepaintNanos >= OVERLAY_REPAINT_NANOS) {
+            repaint(0, 0, displayPanel, OVERLAY_HEIGHT);
+            lastOverlayRepaintNanos = now;
         }
     }
 
     // Method to pause the game
     public void pauseGame() {
         isPausedPlayer1 = true;
-        if (isPausedPlayer2 || isGameEndedPlayer2) {
+        if (isPausedPlayer2 || engine2.isGameEnded()) {
             if (configurationSettings.isMusicEnabled()) {
                 musicPlayer.pauseMusic();                   // Pause music if both players are paused.
             }
@@ -1179,7 +873,7 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
 
     public void pauseGame2(){
         isPausedPlayer2 = true;
-        if (isPausedPlayer1 || isGameEndedPlayer1) {
+        if (isPausedPlayer1 || engine1.isGameEnded()) {
             if (configurationSettings.isMusicEnabled()) {
                 musicPlayer.pauseMusic();                   // Pause music if both players are paused.
             }
@@ -1197,107 +891,56 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
 
     // Method to check if the game is over
     public boolean isGameOver() {
-        return isGameEndedPlayer1;
+        return engine1.isGameEnded();
     }
 
     public boolean isGameOver2() {
-        return isGameEndedPlayer2;
+        return engine2.isGameEnded();
     }
 
     // Method to reset the game state
     public void resetGame(int width, int height, int gameLevel, boolean music, boolean soundEffects, PlayerType typeOfPlayer1, PlayerType typeOfPlayer2, boolean extendMode) {
-        this.fieldWidth = width;
-        this.fieldHeight = height;
-        this.gameLevelPlayer1 = gameLevel;
-        this.initialGameLevel = gameLevel;
-        this.music = music;
-        this.soundEffects = soundEffects;
-        this.typeOfPlayer1 = typeOfPlayer1;
-        this.extendMode = extendMode;
-        this.scorePlayer1 = 0;
-        this.currentBlockIndex++; // Increments to a new block for the next game
-        this.currentBlockIndex2 = currentBlockIndex; // Synchronizes the blocks if two player is enabled
-        this.deletedRowsPlayer1 = 0;
-        this.deletedRowsPlayer1Counter = 0;
-        if (this.extendMode){
-            this.gameLevelPlayer2 = gameLevel;
-            this.typeOfPlayer2 = typeOfPlayer2;
-            this.scorePlayer2 = 0;
-            this.deletedRowsPlayer2 = 0;
-            this.deletedRowsPlayer2Counter = 0;
-            isPausedPlayer2 = false;
-            isGameEndedPlayer2 = false;
-            setPreferredSize(new Dimension(2*(width * blockSize + BORDER_THICKNESS * 2) + 2*displayPanel + 20,
-                    height * blockSize + BORDER_THICKNESS * 2));
-            board2 = new boolean[fieldHeight][fieldWidth];
-            colourBoard2 = new Color[fieldHeight][fieldWidth];
-            spawnBlock(2);
-        }
-        else{
-            setPreferredSize(new Dimension(width * blockSize + BORDER_THICKNESS * 2 + displayPanel,
-                    height * blockSize + BORDER_THICKNESS * 2));
-        }
-        isGameEndedPlayer1 = false;
-        isPausedPlayer1 = false;
-        gameOverSoundPlayedPlayer1 = false;
-        gameOverSoundPlayedPlayer2 = false;
-        board = new boolean[fieldHeight][fieldWidth];
-        colourBoard = new Color[fieldHeight][fieldWidth];
-        spawnBlock(1); // Start a new game with a new block
-        repaint();
-    }
-
-    // Generates 100000 blocks that will be used for all games
-    public List<BlockModel> generateBlocks(){
-        List<BlockModel> blocks = new ArrayList<>();
-        for (int i = 0; i<100000; i++){
-            blocks.add(new BlockModel());
-        }
-        return blocks;
-    }
-
-    private void rotateBlockPlayer1(){ // Used For AI Mode
-        int newX = currentX;
-        double newY = currentY;
-        int oldConfigIndex = currentBlock.rotationIndex;
-        boolean[][] oldShape = currentBlock.getBlockShape();
-
-        newX = newShapeX(1, newX);
-        newY = newShapeY(1, newY);
-        currentBlock.setBlockShape(currentBlock.nextShape());
-
-        if (!isValidPosition(1, newX, newY)) {
-            currentBlock.setBlockShape(oldShape);
-            currentBlock.rotationIndex = oldConfigIndex;
-        } else {
-            currentX = newX;
-            currentY = newY;
+        // Replaces both engines' games, so hold the lock the game loop steps them under
+        synchronized (gameLoop.getLock()) {
+            this.fieldWidth = width;
+            this.fieldHeight = height;
+            this.initialGameLevel = gameLevel;
+            this.music = music;
+            this.soundEffects = soundEffects;
+            this.typeOfPlayer1 = typeOfPlayer1;
+            this.extendMode = extendMode;
+            pieceSeed = pieceSeeds.nextLong(); // New blocks for the next game, the same for both players
+            if (this.extendMode){
+                this.typeOfPlayer2 = typeOfPlayer2;
+                isPausedPlayer2 = false;
+                setPreferredSize(new Dimension(2*(width * blockSize + BORDER_THICKNESS * 2) + 2*displayPanel + 20,
+                        height * blockSize + BORDER_THICKNESS * 2));
+                engine2.newGame(fieldWidth, fieldHeight, gameLevel, newPieceSequence());
+                engine2.spawnBlock();
+            }
+            else{
+                setPreferredSize(new Dimension(width * blockSize + BORDER_THICKNESS * 2 + displayPanel,
+                        height * blockSize + BORDER_THICKNESS * 2));
+            }
+            isPausedPlayer1 = false;
+            gameOverSoundPlayedPlayer1 = false;
+            gameOverSoundPlayedPlayer2 = false;
+            engine1.newGame(fieldWidth, fieldHeight, gameLevel, newPieceSequence());
+            engine1.spawnBlock(); // Start a new game with a new block
+            createFieldRenderers();
+            repaint();
         }
+        setActiveRendering(configurationSettings.isActiveRenderingEnabled());
     }
 
-    private void rotateBlockPlayer2(){ // Used for AI Mode
-        int newX = currentX2;
-        double newY = currentY2;
-        int oldConfigIndex = currentBlock2.rotationIndex;
-        boolean[][] oldShape = currentBlock2.getBlockShape();
-
-        newX = newShapeX(2, newX);
-        newY = newShapeY(2, newY);
-        currentBlock2.setBlockShape(currentBlock2.nextShape());
-
-        if (!isValidPosition(2, newX, newY)) {
-            currentBlock2.setBlockShape(oldShape);
-            currentBlock2.rotationIndex = oldConfigIndex;
-        } else {
-            currentX2 = newX;
-            currentY2 = newY;
-        }
+    // Starts a player's copy of the current game's block sequence
+    private PieceSequence newPieceSequence() {
+        return new PieceSequence(pieceSeed, PIECE_DISTRIBUTION);
     }
 
-
     // Method to resume the game if it's not ended
     public void resumeGame() {
-        if (!isGameEndedPlayer1) {
+        if (!engine1.isGameEnded()) {
             isPausedPlayer1 = false;
             if (configurationSettings.isMusicEnabled()) {
                 musicPlayer.playMusic();
@@ -1306,7 +949,7 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
     }
 
     public void resumeGame2() {
-        if (!isGameEndedPlayer2) {
+        if (!engine2.isGameEnded()) {
             isPausedPlayer2 = false;
             if (configurationSettings.isMusicEnabled()) {
                 musicPlayer.playMusic();
@@ -1315,31 +958,43 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
     }
 
     public void endGame2() {
-        isGameEndedPlayer2 = true;
-        isPausedPlayer2 = true;
+        synchronized (gameLoop.getLock()) {
+            engine2.endGame();
+            isPausedPlayer2 = true;
+        }
     }
 
     // Method to end the game
     public void endGame() {
-        isGameEndedPlayer1 = true;
-        isPausedPlayer1 = true;
+        // Called from the Swing thread while the game loop may be stepping
+        synchronized (gameLoop.getLock()) {
+            engine1.endGame();
+            isPausedPlayer1 = true;
+        }
+    }
+
+    // Stops the game loop, the move workers and the external client's selector thread, e.g. when the application exits
+    public void shutdown() {
+        gameLoop.stop();
+        moveRequestService.shutdown();
+        asyncTetrisClient.close();
     }
 
     // Method to check if the game has ended
     public boolean isGameEndedPlayer1() {
-        return isGameEndedPlayer1;
+        return engine1.isGameEnded();
     }
 
     public boolean isGameEndedPlayer2() {
-        return isGameEndedPlayer2;
+        return engine2.isGameEnded();
     }
 
     public int getScore() {
-        return scorePlayer1;
+        return engine1.getScore();
     }
 
     public int getScore2() {
-        return scorePlayer2;
+        return engine2.getScore();
     }
 
     public int getBlockSize() {
@@ -1351,28 +1006,28 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
     }
 
     public int getGameLevelPlayer1() {
-        return gameLevelPlayer1;
+        return engine1.getGameLevel();
     }
 
     public int getGameLevelPlayer2() {
-        return gameLevelPlayer2;
+        return engine2.getGameLevel();
     }
 
-    public void setBoard(boolean[][] board){this.board = board;}
+    public void setBoard(boolean[][] board){engine1.setBoard(board);}
 
-    public void setBoard2(boolean[][] board){this.board2 = board;}
+    public void setBoard2(boolean[][] board){engine2.setBoard(board);}
 
-    public void setCurrentBlock(BlockModel block){this.currentBlock = new BlockModel(block);}
+    public void setCurrentBlock(BlockModel block){engine1.setCurrentPiece(PieceRotation.of(block));}
 
-    public void setCurrentBlock2(BlockModel block){this.currentBlock2 = new BlockModel(block);}
+    public void setCurrentBlock2(BlockModel block){engine2.setCurrentPiece(PieceRotation.of(block));}
 
-    public void setCurrentX(int x){this.currentX = x;}
+    public void setCurrentX(int x){engine1.setCurrentX(x);}
 
-    public void setCurrentY(double y){this.currentY = y;}
+    public void setCurrentY(double y){engine1.setCurrentY(y);}
 
-    public void setCurrentX2(int x){this.currentX2 = x;}
+    public void setCurrentX2(int x){engine2.setCurrentX(x);}
 
-    public void setCurrentY2(double y){this.currentY2 = y;}
+    public void setCurrentY2(double y){engine2.setCurrentY(y);}
 
     // Method to return the game panel (this instance of GameManager)
     public JPanel getGamePanel() {
@@ -1388,62 +1043,85 @@ public class GameModel extends JPanel implements KeyListener, ActionListener {
     }
 
     private void requestMove(int playerNumber, boolean isExternalPlayer) {
-        new Thread(() -> {
-            // External player
-            if (isExternalPlayer) {
-                // Prepare the game state
-                boolean[][] boardToUse = (playerNumber == 1) ? board : board2;
-                BlockModel currentBlockToUse = (playerNumber == 1) ? currentBlock : currentBlock2;
-                int nextIndex = (playerNumber == 1) ? currentBlockIndex : currentBlockIndex2;
-                BlockModel nextBlock = blockList.get(nextIndex);
-    
-                PureGame game = tetrisClient.createPureGame(
-                    fieldWidth,
-                    fieldHeight,
-                    boardToUse,
-                    currentBlockToUse,
-                    nextBlock
-                );
-    
-                OpMove move = tetrisClient.getExternalMove(game);
-                int opX = move.opX();
-                int opRotate = move.opRotate();
-                if (opX == -1 && opRotate == -1) {
-                    int currentXRef = (playerNumber == 1) ? currentX : currentX2;
-                    applyMove(playerNumber, currentXRef, 0); // Do nothing
-                    if (playerNumber == 1) {
-                        isDisconnectedPlayer1 = true;
-                    } else if (playerNumber == 2) {
-                        isDisconnectedPlayer2 = true;
-                    }
-                } else {
-                    applyMove(playerNumber, opX, opRotate);
-                    if (playerNumber == 1) {
-                        isDisconnectedPlayer1 = false;
-                    } else if (playerNumber == 2) {
-                        isDisconnectedPlayer2 = false;
-                    }
-                }
+        // Take the snapshot on the game loop, so the move thread never reads the live board
+        GameEngine engine = engine(playerNumber);
+        long requestId = (playerNumber == 1) ? ++moveRequestIdPlayer1 : ++moveRequestIdPlayer2;
+        PlayerType playerType = (playerNumber == 1) ? typeOfPlayer1 : typeOfPlayer2;
+        GameSnapshot snapshot = new GameSnapshot(playerNumber, requestId, playerType, engine.getBoard(),
+                engine.getFeatures(), engine.getCurrentPiece(), engine.getNextPiece(), engine.getCurrentX());
+        MoveMailbox mailbox = (playerNumber == 1) ? moveMailbox : moveMailbox2;
+
+        // External player, answered on the client's selector thread; a late or failed reply becomes the default move
+        if (isExternalPlayer) {
+            PureGame game = tetrisClient.createPureGame(
+                snapshot.getFieldWidth(),
+                snapshot.getFieldHeight(),
+                snapshot.getBoard(),
+                snapshot.getCurrentPiece(),
+                snapshot.getNextPiece()
+            );
+            long start = System.nanoTime();
+            CompletableFuture<OpMove> reply = asyncTetrisClient.requestMove(game);
+            reply.thenAccept(move -> {
+                metrics.getExternalRoundTrip().recordSince(start);
+                mailbox.publish(planExternalMove(snapshot, move));
+            });
+            moveRequestService.track(playerNumber, reply);                      // Cancelling closes the connection
+            return;
+        }
 
-            } 
-            // AI
-            else {
-                int[] moveArray = aiManager.scanBoard(
-                    (playerNumber == 1) ? board : board2,
-                    (playerNumber == 1) ? currentBlock : currentBlock2
-                );
-                applyMove(playerNumber, moveArray[2], moveArray[1]);
-            }
-        }).start();
+        moveRequestService.submit(playerNumber, () -> mailbox.publish(planMove(snapshot)));
     }
 
-    private void applyMove(int player, int targetX, int targetRotation) {
+    // Turns the server's reply into a target position, staying put if the server didn't answer
+    private PlannedMove planExternalMove(GameSnapshot snapshot, OpMove move) {
+        if (move.opX() == -1 && move.opRotate() == -1) {
+            return new PlannedMove(snapshot.getRequestId(), snapshot.getSpawnX(), 0, true); // Do nothing
+        }
+        return new PlannedMove(snapshot.getRequestId(), move.opX(), move.opRotate(), false);
+    }
+
+    // Computes the AI's target position for a snapshot, on a move thread
+    private PlannedMove planMove(GameSnapshot snapshot) {
+        // AI, searching the next block as well when lookahead is selected
+        long start = System.nanoTime();
+        GameEvents.AiSearch event = new GameEvents.AiSearch();
+        event.begin();
+        int[] moveArray;
+        if (snapshot.getPlayerType() == PlayerType.AI_LOOKAHEAD) {
+            moveArray = aiManager.findBestMoveWithLookahead(snapshot.getBoard(), snapshot.getFeatures(),
+                    snapshot.getCurrentPiece(), snapshot.getNextPiece());
+        } else {
+            moveArray = aiManager.findBestMove(snapshot.getBoard(), snapshot.getFeatures(),
+                    snapshot.getCurrentPiece());
+        }
+        metrics.getAiDecision().recordSince(start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.player = snapshot.getPlayer();
+            event.lookahead = snapshot.getPlayerType() == PlayerType.AI_LOOKAHEAD;
+            event.targetX = moveArray[2];
+            event.targetRotation = moveArray[1];
+            event.commit();
+        }
+        return new PlannedMove(snapshot.getRequestId(), moveArray[2], moveArray[1], false);
+    }
+
+    // Applies a move published for the player's current block, discarding moves for blocks that already locked
+    private void takePlannedMove(int player) {
+        PlannedMove move = (player == 1) ? moveMailbox.take() : moveMailbox2.take();
+        if (move == null || move.requestId() != ((player == 1) ? moveRequestIdPlayer1 : moveRequestIdPlayer2)) {
+            return;
+        }
+        applyMove(player, move.targetX(), move.targetRotation());
         if (player == 1) {
-            this.targetX = targetX;
-            this.targetRotation = targetRotation;
+            isDisconnectedPlayer1 = move.disconnected();
         } else {
-            this.targetX2 = targetX;
-            this.targetRotation2 = targetRotation;
+            isDisconnectedPlayer2 = move.disconnected();
         }
     }
+
+    private void applyMove(int player, int targetX, int targetRotation) {
+        engine(player).setTarget(targetX, targetRotation);
+    }
 }
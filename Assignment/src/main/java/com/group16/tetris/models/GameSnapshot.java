@@ -0,0 +1,71 @@
+package com.group16.tetris.models;
+
+import com.group16.tetris.models.ConfigurationModel.PlayerType;
+
+// Copy of one player's game state taken when a block spawns, handed to the thread that computes the block's move.
+// The game loop keeps changing its own board, so the move thread only ever reads this copy
+public final class GameSnapshot {
+
+    private final int player;
+    private final long requestId;  // Spawn the snapshot was taken for, used to discard moves for blocks that locked
+    private final PlayerType playerType;
+    private final BitBoard board;
+    private final BoardFeatures features;
+    private final PieceRotation currentPiece;  // Pieces are immutable, so they are shared rather than copied
+    private final PieceRotation nextPiece;
+    private final int spawnX;
+
+    public GameSnapshot(int player, long requestId, PlayerType playerType, BitBoard board, BoardFeatures features,
+                        PieceRotation currentPiece, PieceRotation nextPiece, int spawnX) {
+        this.player = player;
+        this.requestId = requestId;
+        this.playerType = playerType;
+        this.board = new BitBoard(board);                                       // Copies one word per row
+        this.features = new BoardFeatures(features);
+        this.currentPiece = currentPiece;
+        this.nextPiece = nextPiece;
+        this.spawnX = spawnX;
+    }
+
+    public int getPlayer() {
+        return player;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public PlayerType getPlayerType() {
+        return playerType;
+    }
+
+    // The snapshot's own board. Callers must only read it
+    public BitBoard getBoard() {
+        return board;
+    }
+
+    // The snapshot's own copy of the board's features. Callers must only read it
+    public BoardFeatures getFeatures() {
+        return features;
+    }
+
+    public PieceRotation getCurrentPiece() {
+        return currentPiece;
+    }
+
+    public PieceRotation getNextPiece() {
+        return nextPiece;
+    }
+
+    public int getSpawnX() {
+        return spawnX;
+    }
+
+    public int getFieldWidth() {
+        return board.getWidth();
+    }
+
+    public int getFieldHeight() {
+        return board.getHeight();
+    }
+}
@@ -81,6 +81,8 @@ public class HighScoresModel {
             result = result + "Human ";
         } else if (typeOfPlayer == PlayerType.AI) {
             result = result + "AI ";
+        } else if (typeOfPlayer == PlayerType.AI_LOOKAHEAD) {
+            result = result + "AI-Lookahead ";
         } else {
             result = result + "External ";
         }
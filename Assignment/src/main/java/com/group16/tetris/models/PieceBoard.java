@@ -0,0 +1,91 @@
+package com.group16.tetris.models;
+
+import com.group16.tetris.models.BlockModel.ShapeType;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+// Shape of the block that filled each cell of the game field, stored as one byte per cell in a single flat array
+// (0 = empty, otherwise shape ordinal + 1). It only records colours for drawing; BitBoard stays the occupancy index
+// used for collisions and full rows. Rows are reached through a table of row offsets, so clearing rows moves offsets
+// rather than cells
+public class PieceBoard {
+
+    private static final byte EMPTY = 0;
+    private static final ShapeType[] SHAPE_TYPES = ShapeType.values();  // values() copies the array on every call
+
+    private final int width;
+    private final int height;
+    private final byte[] cells;
+    private final int[] rowStarts;  // Cell (x, y) is stored at cells[rowStarts[y] + x]
+    private final int[] freedRows;  // Scratch for the offsets of removed rows, reused by every clear
+
+    public PieceBoard(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = new byte[width * height];
+        this.rowStarts = new int[height];
+        this.freedRows = new int[height];
+        for (int y = 0; y < height; y++) {
+            rowStarts[y] = y * width;
+        }
+    }
+
+    // Records the shape of a piece with its top-left corner at (x, y)
+    public void place(PieceRotation piece, int x, int y) {
+        byte value = (byte) (piece.getShapeType().ordinal() + 1);
+        for (int cell = 0; cell < piece.getCellCount(); cell++) {
+            cells[rowStarts[y + piece.getCellY(cell)] + x + piece.getCellX(cell)] = value;
+        }
+    }
+
+    // Removes a row and shifts every row above it down by one
+    public void removeRow(int y) {
+        removeRows(new int[] {y}, 1);
+    }
+
+    // Removes several rows, given in ascending order, in one pass over the row offsets. Only the removed rows' cells
+    // are touched, to empty them for reuse at the top
+    public void removeRows(int[] removedRows, int count) {
+        int write = height - 1;
+        int removed = count - 1;
+        int freed = 0;
+        for (int y = height - 1; y >= 0; y--) {
+            if (removed >= 0 && removedRows[removed] == y) {
+                freedRows[freed++] = rowStarts[y];
+                removed--;
+            } else {
+                rowStarts[write--] = rowStarts[y];
+            }
+        }
+        while (freed > 0) {
+            int start = freedRows[--freed];
+            Arrays.fill(cells, start, start + width, EMPTY);
+            rowStarts[write--] = start;
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(cells, EMPTY);
+    }
+
+    // Returns the shape that filled a cell, or null when the cell is empty
+    public ShapeType getShapeType(int x, int y) {
+        byte value = cells[rowStarts[y] + x];
+        return value == EMPTY ? null : SHAPE_TYPES[value - 1];
+    }
+
+    // Returns the colour of a cell, or null when the cell is empty
+    public Color getColour(int x, int y) {
+        byte value = cells[rowStarts[y] + x];
+        return value == EMPTY ? null : BlockModel.SHAPE_COLOURS[value - 1];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,126 @@
+package com.group16.tetris.models;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// Precomputed row bitmasks for a block shape, used for word-sized collision checks against a BitBoard
+public final class PieceMask {
+
+    // Masks for every shape and rotation in BlockModel.SHAPES, looked up by array identity
+    private static final Map<boolean[][], PieceMask> SHAPE_MASKS = new IdentityHashMap<>();
+
+    // Number of clockwise rotations cached ahead for each shape in BlockModel.SHAPES
+    private static final int CACHED_ROTATIONS = 3;
+
+    static {
+        for (boolean[][][] rotations : BlockModel.SHAPES) {
+            for (boolean[][] shape : rotations) {
+                PieceMask mask = new PieceMask(shape);
+                SHAPE_MASKS.put(shape, mask);
+
+                // Chain the clockwise rotations so the AI can rotate a spawned block without allocating
+                PieceMask rotated = mask;
+                for (int i = 0; i < CACHED_ROTATIONS; i++) {
+                    rotated.clockwise = rotated.computeClockwise();
+                    rotated = rotated.clockwise;
+                }
+            }
+        }
+    }
+
+    private final long[] rows;  // Bit j of rows[i] is set when shape[i][j] is filled
+    private final int width;
+    private final int height;
+    private final int minColumn;  // Left-most column containing a filled cell
+    private final int maxColumn;  // Right-most column containing a filled cell
+    private final int[] columnBottoms;  // Lowest filled row of each column, or -1 when the column is empty
+    private PieceMask clockwise;  // Cached clockwise rotation, only set while building the static table
+
+    private PieceMask(boolean[][] shape) {
+        this.height = shape.length;
+        this.width = shape[0].length;
+        this.rows = new long[height];
+
+        int min = width;
+        int max = -1;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                if (shape[i][j]) {
+                    rows[i] |= 1L << j;
+                    min = Math.min(min, j);
+                    max = Math.max(max, j);
+                }
+            }
+        }
+        this.minColumn = max < 0 ? 0 : min;
+        this.maxColumn = max;
+
+        this.columnBottoms = new int[width];
+        for (int j = 0; j < width; j++) {
+            columnBottoms[j] = -1;
+            for (int i = 0; i < height; i++) {
+                if (shape[i][j]) {
+                    columnBottoms[j] = i;
+                }
+            }
+        }
+    }
+
+    // Returns the mask for a shape, reusing the precomputed one when it comes from BlockModel.SHAPES
+    public static PieceMask of(boolean[][] shape) {
+        PieceMask mask = SHAPE_MASKS.get(shape);
+        return mask != null ? mask : new PieceMask(shape);
+    }
+
+    // Returns the precomputed mask for a shape type and rotation
+    public static PieceMask of(BlockModel.ShapeType shapeType, int rotationIndex) {
+        return SHAPE_MASKS.get(BlockModel.SHAPES[shapeType.ordinal()][rotationIndex]);
+    }
+
+    // Returns this shape rotated clockwise, matching TetrisAI.rotateShape
+    public PieceMask rotateClockwise() {
+        return clockwise != null ? clockwise : computeClockwise();
+    }
+
+    private PieceMask computeClockwise() {
+        boolean[][] rotated = new boolean[width][height];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                rotated[j][height - 1 - i] = (rows[i] & (1L << j)) != 0;  // Transpose and reverse rows
+            }
+        }
+        return new PieceMask(rotated);
+    }
+
+    // Returns row i of the shape shifted so that its left edge sits on board column x
+    public long rowAt(int i, int x) {
+        return x >= 0 ? rows[i] << x : rows[i] >>> -x;
+    }
+
+    // Returns a mask covering every column of the shape's bounding box when placed at column x
+    public long columnSpan(int x) {
+        long span = (1L << width) - 1;
+        return x >= 0 ? span << x : span >>> -x;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getMinColumn() {
+        return minColumn;
+    }
+
+    public int getMaxColumn() {
+        return maxColumn;
+    }
+
+    // Returns the lowest filled row in column j of the shape, or -1 when that column is empty
+    public int getColumnBottom(int j) {
+        return columnBottoms[j];
+    }
+}
@@ -0,0 +1,187 @@
+package com.group16.tetris.models;
+
+import com.group16.tetris.models.BlockModel.ShapeType;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+// One rotation of one shape, built once from BlockModel.SHAPES and shared by every block in every game. It is
+// immutable, so a falling block can be rotated, drawn and handed to other threads without copying it
+public final class PieceRotation {
+
+    private static final int ROTATIONS = 4;
+
+    // Every shape and rotation, indexed by shape type ordinal and rotation index
+    private static final PieceRotation[][] TABLE = new PieceRotation[ShapeType.values().length][ROTATIONS];
+
+    static {
+        for (ShapeType shapeType : ShapeType.values()) {
+            for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+                TABLE[shapeType.ordinal()][rotation] = new PieceRotation(shapeType, rotation);
+            }
+        }
+    }
+
+    private final ShapeType shapeType;
+    private final int rotationIndex;
+    private final boolean[][] shape;
+    private final PieceMask mask;
+    private final Color colour;
+    private final int width;
+    private final int height;
+    private final int[] cellXs;  // Column of each filled cell, relative to the shape's left edge
+    private final int[] cellYs;  // Row of each filled cell, relative to the shape's top edge
+    private final int kickX;     // Position adjustment when rotating on to the next rotation
+    private final int kickY;
+
+    private PieceRotation(ShapeType shapeType, int rotationIndex) {
+        this.shapeType = shapeType;
+        this.rotationIndex = rotationIndex;
+        this.shape = BlockModel.SHAPES[shapeType.ordinal()][rotationIndex];
+        this.mask = PieceMask.of(shape);
+        this.colour = BlockModel.SHAPE_COLOURS[shapeType.ordinal()];
+        this.height = shape.length;
+        this.width = shape[0].length;
+
+        int cells = 0;
+        for (boolean[] row : shape) {
+            for (boolean filled : row) {
+                cells += filled ? 1 : 0;
+            }
+        }
+        this.cellXs = new int[cells];
+        this.cellYs = new int[cells];
+        int cell = 0;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                if (shape[i][j]) {
+                    cellXs[cell] = j;
+                    cellYs[cell] = i;
+                    cell++;
+                }
+            }
+        }
+
+        this.kickX = kickX(shapeType, rotationIndex);
+        this.kickY = kickY(shapeType, rotationIndex);
+    }
+
+    // Adjusts the x-coordinate when rotating the Straight and L-shaped blocks
+    private static int kickX(ShapeType shapeType, int rotationIndex) {
+        if (shapeType == ShapeType.STRAIGHT) {
+            switch (rotationIndex) {
+                case 1 -> { return -3; }
+                case 2 -> { return 3; }
+            }
+        } else if (shapeType == ShapeType.L_SHAPE || shapeType == ShapeType.REVERSE_L_SHAPE) {
+            switch (rotationIndex) {
+                case 0, 1 -> { return -1; }
+                case 2 -> { return 2; }
+            }
+        }
+        return 0;
+    }
+
+    // Adjusts the y-coordinate when rotating the Straight and L-shaped blocks
+    private static int kickY(ShapeType shapeType, int rotationIndex) {
+        if (shapeType == ShapeType.STRAIGHT) {
+            switch (rotationIndex) {
+                case 2 -> { return -3; }
+                case 3 -> { return 3; }
+            }
+        } else if (shapeType == ShapeType.L_SHAPE || shapeType == ShapeType.REVERSE_L_SHAPE) {
+            switch (rotationIndex) {
+                case 1, 2 -> { return -1; }
+                case 3 -> { return 2; }
+            }
+        }
+        return 0;
+    }
+
+    public static PieceRotation of(ShapeType shapeType, int rotationIndex) {
+        return TABLE[shapeType.ordinal()][rotationIndex];
+    }
+
+    // Returns the rotation matching a block. A block whose shape doesn't match its type and rotation index, e.g. one
+    // built cell by cell, is matched by its cells instead
+    public static PieceRotation of(BlockModel block) {
+        PieceRotation rotation = of(block.getShapeType(), block.getRotationIndex());
+        if (rotation.shape == block.getBlockShape() || Arrays.deepEquals(rotation.shape, block.getBlockShape())) {
+            return rotation;
+        }
+        for (PieceRotation[] rotations : TABLE) {
+            for (PieceRotation candidate : rotations) {
+                if (Arrays.deepEquals(candidate.shape, block.getBlockShape())) {
+                    return candidate;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Block shape is not one of BlockModel.SHAPES");
+    }
+
+    // Returns the next rotation clockwise
+    public PieceRotation next() {
+        return TABLE[shapeType.ordinal()][(rotationIndex + 1) % ROTATIONS];
+    }
+
+    // Returns a mutable block with this shape, for code that still works on BlockModel
+    public BlockModel toBlockModel() {
+        BlockModel block = new BlockModel(shapeType);
+        block.setBlockShape(shape, rotationIndex);
+        return block;
+    }
+
+    public ShapeType getShapeType() {
+        return shapeType;
+    }
+
+    public int getRotationIndex() {
+        return rotationIndex;
+    }
+
+    // The shared shape array from BlockModel.SHAPES, which must not be modified
+    public boolean[][] getShape() {
+        return shape;
+    }
+
+    public PieceMask getMask() {
+        return mask;
+    }
+
+    public Color getColour() {
+        return colour;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCellCount() {
+        return cellXs.length;
+    }
+
+    public int getCellX(int cell) {
+        return cellXs[cell];
+    }
+
+    public int getCellY(int cell) {
+        return cellYs[cell];
+    }
+
+    // Returns the lowest filled row in column j of the shape, or -1 when that column is empty
+    public int getColumnBottom(int j) {
+        return mask.getColumnBottom(j);
+    }
+
+    public int getKickX() {
+        return kickX;
+    }
+
+    public int getKickY() {
+        return kickY;
+    }
+}
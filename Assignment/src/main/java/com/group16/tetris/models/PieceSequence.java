@@ -0,0 +1,91 @@
+package com.group16.tetris.models;
+
+import com.group16.tetris.models.BlockModel.ShapeType;
+
+import java.util.Random;
+
+// Seeded stream of block shapes, generated as the game needs them into a small ring buffer instead of being dealt up
+// front. Two sequences with the same seed and distribution produce the same shapes, so each player can have their own
+public class PieceSequence {
+
+    // How shapes are picked: independently at random like BlockModel, or as shuffled bags holding every shape once
+    public enum Distribution {
+        UNIFORM,
+        BAG
+    }
+
+    private static final ShapeType[] SHAPE_TYPES = ShapeType.values();
+
+    // Power of two, with room for a whole bag on top of the shapes still waiting to be taken
+    private static final int BUFFER_SIZE = 16;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    // Furthest ahead a shape can be previewed, so a bag always fits when the buffer is refilled
+    public static final int MAX_PREVIEW = BUFFER_SIZE - SHAPE_TYPES.length;
+
+    private final Random random;
+    private final Distribution distribution;
+    private final byte[] buffer = new byte[BUFFER_SIZE];  // Shape ordinals waiting to be taken
+    private final byte[] bag = new byte[SHAPE_TYPES.length];
+    private int head;
+    private int count;
+
+    public PieceSequence(long seed) {
+        this(seed, Distribution.UNIFORM);
+    }
+
+    public PieceSequence(long seed, Distribution distribution) {
+        this.random = new Random(seed);
+        this.distribution = distribution;
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] = (byte) i;
+        }
+    }
+
+    // Takes the next shape
+    public ShapeType next() {
+        fill(1);
+        ShapeType shapeType = SHAPE_TYPES[buffer[head]];
+        head = (head + 1) & BUFFER_MASK;
+        count--;
+        return shapeType;
+    }
+
+    // Returns a shape without taking it, 0 being the shape next() returns
+    public ShapeType peek(int ahead) {
+        if (ahead < 0 || ahead >= MAX_PREVIEW) {
+            throw new IllegalArgumentException("Can only preview up to " + MAX_PREVIEW + " shapes ahead");
+        }
+        fill(ahead + 1);
+        return SHAPE_TYPES[buffer[(head + ahead) & BUFFER_MASK]];
+    }
+
+    public Distribution getDistribution() {
+        return distribution;
+    }
+
+    // Generates shapes until at least the given number are waiting
+    private void fill(int needed) {
+        while (count < needed) {
+            if (distribution == Distribution.UNIFORM) {
+                add((byte) random.nextInt(SHAPE_TYPES.length));
+            } else {
+                // Fisher-Yates shuffle of the previous bag, which still holds every shape once
+                for (int i = bag.length - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    byte swap = bag[i];
+                    bag[i] = bag[j];
+                    bag[j] = swap;
+                }
+                for (byte shape : bag) {
+                    add(shape);
+                }
+            }
+        }
+    }
+
+    private void add(byte shape) {
+        buffer[(head + count) & BUFFER_MASK] = shape;
+        count++;
+    }
+}
@@ -0,0 +1,5 @@
+package com.group16.tetris.models;
+
+// Target position computed for a spawned block, tagged with the spawn it was requested for
+public record PlannedMove(long requestId, int targetX, int targetRotation, boolean disconnected) {
+}
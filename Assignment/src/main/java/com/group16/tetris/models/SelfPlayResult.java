@@ -0,0 +1,5 @@
+package com.group16.tetris.models;
+
+// Outcome of one headless AI game played by the self-play runner
+public record SelfPlayResult(long seed, int linesCleared, int score, int piecesPlaced, boolean gameOver) {
+}
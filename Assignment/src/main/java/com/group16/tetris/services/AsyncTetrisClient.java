@@ -0,0 +1,350 @@
+package com.group16.tetris.services;
+
+import com.group16.tetris.models.OpMove;
+import com.group16.tetris.models.PureGame;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Non-blocking client for external players. Every request is driven by one selector thread, so both players can wait
+// on the server at once without tying up a thread each, and a request that misses its deadline gets the default move
+public class AsyncTetrisClient {
+    private static final String DEFAULT_SERVER_HOST = "localhost";
+    private static final int DEFAULT_SERVER_PORT = 3000;
+
+    // Time a request may take, from connecting to reading the reply, before the default move is used
+    public static final long DEFAULT_TIMEOUT_MILLIS = 1000;
+
+    private static final Gson GSON = new Gson();
+    private static final int READ_BUFFER_SIZE = 256;
+
+    private final String serverHost;
+    private final int serverPort;
+
+    // Requests waiting to be registered with the selector, and those in flight, owned by the selector thread
+    private final Queue<Request> newRequests = new ConcurrentLinkedQueue<>();
+    private final List<Request> activeRequests = new ArrayList<>();
+
+    private Selector selector;
+    private Thread selectorThread;
+    private volatile boolean closed;
+
+    // JSON lines, understood by every server, or binary frames once the server has agreed to them
+    public enum WireFormat {
+        JSON,
+        BINARY
+    }
+
+    private volatile WireFormat wireFormat = WireFormat.JSON;
+
+    // One request: a connection that sends a game state and reads back a move in the same format
+    private static final class Request {
+        private final CompletableFuture<OpMove> future = new CompletableFuture<>();
+        private final WireFormat format;
+        private final ByteBuffer output;
+        private final ByteArrayOutputStream response = new ByteArrayOutputStream();
+        private final long deadlineNanos;
+        private final GameEvents.ExternalRequest event = new GameEvents.ExternalRequest();
+        private SocketChannel channel;
+
+        private Request(WireFormat format, byte[] gameState, long timeoutMillis) {
+            this.format = format;
+            this.output = ByteBuffer.wrap(gameState);
+            this.deadlineNanos = System.nanoTime() + timeoutMillis * 1_000_000L;
+            event.begin();
+        }
+    }
+
+    public AsyncTetrisClient() {
+        this(DEFAULT_SERVER_HOST, DEFAULT_SERVER_PORT);
+    }
+
+    public AsyncTetrisClient(String serverHost, int serverPort) {
+        this.serverHost = serverHost;
+        this.serverPort = serverPort;
+    }
+
+    public CompletableFuture<OpMove> requestMove(PureGame game) {
+        return requestMove(game, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    // Sends the game state and returns a future for the server's move. The future completes with OpMove(-1, -1) if
+    // the server can't be reached, replies with something unreadable or misses the deadline. Cancelling the future
+    // closes its connection
+    public CompletableFuture<OpMove> requestMove(PureGame game, long timeoutMillis) {
+        WireFormat format = wireFormat;
+        byte[] gameState = (format == WireFormat.BINARY) ? BinaryGameCodec.encodeGame(game)
+                : (GSON.toJson(game) + "\n").getBytes(StandardCharsets.UTF_8);
+        Request request = new Request(format, gameState, timeoutMillis);
+        try {
+            startSelector();
+        } catch (IOException e) {
+            e.printStackTrace();
+            request.future.complete(new OpMove(-1, -1));
+            return request.future;
+        }
+        newRequests.add(request);
+        Selector requestSelector = selector;
+        request.future.whenComplete((move, error) -> {
+            if (request.future.isCancelled()) {
+                requestSelector.wakeup();                                       // Close its connection right away
+            }
+        });
+        requestSelector.wakeup();
+        if (closed) {
+            request.future.complete(new OpMove(-1, -1));                        // Closed before it was picked up
+        }
+        return request.future;
+    }
+
+    // Asks the server, on a background thread, whether it accepts binary frames. Requests keep using JSON until the
+    // server echoes the handshake; any other answer (or none) leaves the client on JSON
+    public CompletableFuture<WireFormat> negotiateBinaryFormat() {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(serverHost, serverPort), (int) DEFAULT_TIMEOUT_MILLIS);
+                socket.setSoTimeout((int) DEFAULT_TIMEOUT_MILLIS);
+                PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                out.println(BinaryGameCodec.HANDSHAKE);
+                wireFormat = BinaryGameCodec.HANDSHAKE.equals(in.readLine()) ? WireFormat.BINARY : WireFormat.JSON;
+            } catch (IOException e) {
+                wireFormat = WireFormat.JSON;
+            }
+            return wireFormat;
+        });
+    }
+
+    public WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    // Starts the selector thread the first time a move is requested
+    private synchronized void startSelector() throws IOException {
+        if (closed) {
+            throw new IOException("Client is closed");
+        }
+        if (selectorThread != null) {
+            return;
+        }
+        selector = Selector.open();
+        selectorThread = new Thread(this::runSelector, "tetris-client-selector");
+        selectorThread.setDaemon(true);                                         // Never keeps the application open
+        selectorThread.start();
+    }
+
+    private void runSelector() {
+        try {
+            while (!closed) {
+                selector.select(millisUntilNextDeadline());
+                registerNewRequests();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handleKey(key);
+                }
+                expireRequests();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (!closed) {
+                e.printStackTrace();
+            }
+        } finally {
+            // Anything still waiting gets the default move
+            registerNewRequests();
+            for (Request request : new ArrayList<>(activeRequests)) {
+                finish(request, new OpMove(-1, -1));
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    // Opens a connection for each new request and registers it with the selector
+    private void registerNewRequests() {
+        Request request;
+        while ((request = newRequests.poll()) != null) {
+            activeRequests.add(request);
+            if (closed || request.future.isDone()) {
+                finish(request, new OpMove(-1, -1));
+                continue;
+            }
+            try {
+                request.channel = SocketChannel.open();
+                request.channel.configureBlocking(false);
+                if (request.channel.connect(new InetSocketAddress(serverHost, serverPort))) {
+                    request.channel.register(selector, SelectionKey.OP_WRITE, request);
+                } else {
+                    request.channel.register(selector, SelectionKey.OP_CONNECT, request);
+                }
+            } catch (IOException e) {
+                finish(request, new OpMove(-1, -1));
+            }
+        }
+    }
+
+    // Connects, then writes the game state, then reads until the reply line is complete
+    private void handleKey(SelectionKey key) {
+        Request request = (Request) key.attachment();
+        try {
+            if (key.isConnectable() && request.channel.finishConnect()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            }
+            if (key.isValid() && key.isWritable()) {
+                request.channel.write(request.output);
+                if (!request.output.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            }
+            if (key.isValid() && key.isReadable()) {
+                readResponse(request);
+            }
+        } catch (IOException e) {
+            finish(request, new OpMove(-1, -1));
+        }
+    }
+
+    private void readResponse(Request request) throws IOException {
+        if (request.format == WireFormat.BINARY) {
+            readBinaryResponse(request);
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        int read;
+        while ((read = request.channel.read(buffer)) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte next = buffer.get();
+                if (next == '\n') {
+                    finish(request, parseMove(request.response));
+                    return;
+                }
+                request.response.write(next);
+            }
+            buffer.clear();
+        }
+        if (read < 0) {
+            finish(request, parseMove(request.response));                       // Server closed without a newline
+        }
+    }
+
+    // Reads until the whole move frame has arrived
+    private void readBinaryResponse(Request request) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        int read;
+        while ((read = request.channel.read(buffer)) > 0) {
+            request.response.write(buffer.array(), 0, read);
+            buffer.clear();
+        }
+        byte[] received = request.response.toByteArray();
+        try {
+            int frameLength = BinaryGameCodec.frameLength(received, received.length);
+            if (frameLength >= 0 && received.length >= frameLength) {
+                finish(request, BinaryGameCodec.decodeMove(received));
+            } else if (read < 0) {
+                finish(request, new OpMove(-1, -1));                            // Server closed mid-frame
+            }
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            finish(request, new OpMove(-1, -1));
+        }
+    }
+
+    private OpMove parseMove(ByteArrayOutputStream response) {
+        try {
+            OpMove move = GSON.fromJson(response.toString(StandardCharsets.UTF_8), OpMove.class);
+            return move != null ? move : new OpMove(-1, -1);
+        } catch (JsonParseException e) {
+            return new OpMove(-1, -1);
+        }
+    }
+
+    // Gives requests past their deadline the default move, and drops requests whose future was cancelled
+    private void expireRequests() {
+        long now = System.nanoTime();
+        for (Request request : new ArrayList<>(activeRequests)) {
+            if (request.future.isDone() || now - request.deadlineNanos >= 0) {
+                finish(request, new OpMove(-1, -1));
+            }
+        }
+    }
+
+    private long millisUntilNextDeadline() {
+        if (activeRequests.isEmpty()) {
+            return 0;                                                           // Wait until woken up
+        }
+        long nextDeadline = Long.MAX_VALUE;
+        for (Request request : activeRequests) {
+            nextDeadline = Math.min(nextDeadline, request.deadlineNanos);
+        }
+        return Math.max(1, (nextDeadline - System.nanoTime()) / 1_000_000L + 1);
+    }
+
+    // Completes a request (unless it was already completed or cancelled) and closes its connection
+    private void finish(Request request, OpMove move) {
+        activeRequests.remove(request);
+        if (request.channel != null) {
+            try {
+                request.channel.close();
+            } catch (IOException e) {
+                // The request is over either way
+            }
+        }
+        // Recorded before completing, so the event is committed by the time anyone sees the move
+        if (!request.future.isDone()) {
+            recordEvent(request, move);
+        }
+        request.future.complete(move);
+    }
+
+    private void recordEvent(Request request, OpMove move) {
+        GameEvents.ExternalRequest event = request.event;
+        event.end();
+        if (event.shouldCommit()) {
+            event.wireFormat = request.format.name();
+            event.bytesSent = request.output.position();
+            event.bytesReceived = request.response.size();
+            event.defaultMove = move.opX() == -1 && move.opRotate() == -1;
+            event.commit();
+        }
+    }
+
+    // Stops the selector thread. Requests still waiting complete with the default move
+    public synchronized void close() {
+        closed = true;
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    public String getServerHost() {
+        return serverHost;
+    }
+
+    public int getServerPort() {
+        return serverPort;
+    }
+}
@@ -0,0 +1,147 @@
+package com.group16.tetris.services;
+
+import com.group16.tetris.models.OpMove;
+import com.group16.tetris.models.PureGame;
+
+import java.nio.ByteBuffer;
+
+// Compact alternative to the JSON wire format. A frame is a 7 byte header ("TB", version, payload length) followed by
+// the payload. Games are sent as width, height and one bit per cell, so a 10x20 board takes 40 bytes instead of the
+// ~400 characters of JSON. Servers can tell the formats apart by the first byte: 'T' for binary, '{' for JSON
+public final class BinaryGameCodec {
+
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 7;
+
+    // JSON line sent to ask the server for binary frames. A server that supports them echoes the same line back
+    public static final String HANDSHAKE = "{\"wireFormat\":\"binary-v" + VERSION + "\"}";
+
+    private static final byte MAGIC_1 = 'T';
+    private static final byte MAGIC_2 = 'B';
+    private static final int MOVE_PAYLOAD_SIZE = 4;
+
+    private BinaryGameCodec() {
+    }
+
+    // Encodes a game state as a frame
+    public static byte[] encodeGame(PureGame game) {
+        int payloadSize = 4 + packedSize(game.getHeight(), game.getWidth())
+                + shapeSize(game.getCurrentShape()) + shapeSize(game.getNextShape());
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + payloadSize);
+        writeHeader(frame, payloadSize);
+        frame.putShort((short) game.getWidth());
+        frame.putShort((short) game.getHeight());
+        putBits(frame, game.getCells(), game.getHeight(), game.getWidth());
+        putShape(frame, game.getCurrentShape());
+        putShape(frame, game.getNextShape());
+        return frame.array();
+    }
+
+    // Decodes a game state frame, as a server would
+    public static PureGame decodeGame(byte[] frame) {
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        readHeader(buffer);
+        PureGame game = new PureGame();
+        game.setWidth(buffer.getShort());
+        game.setHeight(buffer.getShort());
+        game.setCells(getBits(buffer, game.getHeight(), game.getWidth()));
+        game.setCurrentShape(getShape(buffer));
+        game.setNextShape(getShape(buffer));
+        return game;
+    }
+
+    // Encodes a move as a frame, as a server would
+    public static byte[] encodeMove(OpMove move) {
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + MOVE_PAYLOAD_SIZE);
+        writeHeader(frame, MOVE_PAYLOAD_SIZE);
+        frame.putShort((short) move.opX());
+        frame.putShort((short) move.opRotate());
+        return frame.array();
+    }
+
+    // Decodes a move frame
+    public static OpMove decodeMove(byte[] frame) {
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        if (readHeader(buffer) < MOVE_PAYLOAD_SIZE) {
+            throw new IllegalArgumentException("Move frame is too short");
+        }
+        return new OpMove(buffer.getShort(), buffer.getShort());
+    }
+
+    // Returns the full length of the frame starting at the beginning of the bytes received so far, or -1 if the
+    // header hasn't arrived yet
+    public static int frameLength(byte[] received, int length) {
+        if (length < HEADER_SIZE) {
+            return -1;
+        }
+        return HEADER_SIZE + readHeader(ByteBuffer.wrap(received, 0, length));
+    }
+
+    private static void writeHeader(ByteBuffer frame, int payloadSize) {
+        frame.put(MAGIC_1).put(MAGIC_2).put((byte) VERSION).putInt(payloadSize);
+    }
+
+    // Checks the header and returns the payload length
+    private static int readHeader(ByteBuffer buffer) {
+        if (buffer.get() != MAGIC_1 || buffer.get() != MAGIC_2 || buffer.get() != VERSION) {
+            throw new IllegalArgumentException("Not a version " + VERSION + " binary frame");
+        }
+        return buffer.getInt();
+    }
+
+    // Cells are packed row by row, one bit per cell, lowest bit first
+    private static int packedSize(int rows, int columns) {
+        return (rows * columns + 7) / 8;
+    }
+
+    private static int shapeSize(int[][] shape) {
+        return 2 + packedSize(shape.length, shape[0].length);
+    }
+
+    private static void putShape(ByteBuffer frame, int[][] shape) {
+        frame.put((byte) shape.length).put((byte) shape[0].length);
+        putBits(frame, shape, shape.length, shape[0].length);
+    }
+
+    private static int[][] getShape(ByteBuffer buffer) {
+        int rows = buffer.get();
+        int columns = buffer.get();
+        return getBits(buffer, rows, columns);
+    }
+
+    private static void putBits(ByteBuffer frame, int[][] cells, int rows, int columns) {
+        int packed = 0;
+        int bit = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (cells[i][j] != 0) {
+                    packed |= 1 << bit;
+                }
+                if (++bit == 8) {
+                    frame.put((byte) packed);
+                    packed = 0;
+                    bit = 0;
+                }
+            }
+        }
+        if (bit > 0) {
+            frame.put((byte) packed);
+        }
+    }
+
+    private static int[][] getBits(ByteBuffer buffer, int rows, int columns) {
+        int[][] cells = new int[rows][columns];
+        int packed = 0;
+        int bit = 8;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (bit == 8) {
+                    packed = buffer.get();
+                    bit = 0;
+                }
+                cells[i][j] = (packed >> bit++) & 1;
+            }
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,158 @@
+package com.group16.tetris.services;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+// Java Flight Recorder events for the game's hot paths, so a recording shows where a lagging game spends its time
+// next to GC and thread activity. They cost next to nothing unless a recording is running: launch with --jfr (or
+// --jfr=FILE) to start one, or attach with jcmd <pid> JFR.start
+public final class GameEvents {
+
+    private static final String CATEGORY = "Tetris";
+
+    private GameEvents() {
+    }
+
+    @Name("com.group16.tetris.PieceSpawned")
+    @Label("Piece Spawned")
+    @Category({CATEGORY, "Game"})
+    @StackTrace(false)
+    public static final class PieceSpawned extends Event {
+        @Label("Player")
+        public int player;
+
+        @Label("Shape")
+        public String shape;
+
+        @Label("Level")
+        public int level;
+    }
+
+    // Lasts from the piece locking until the next piece spawns, which covers clearing rows
+    @Name("com.group16.tetris.PieceLocked")
+    @Label("Piece Locked")
+    @Category({CATEGORY, "Game"})
+    @StackTrace(false)
+    public static final class PieceLocked extends Event {
+        @Label("Player")
+        public int player;
+
+        @Label("Shape")
+        public String shape;
+
+        @Label("Rotation")
+        public int rotation;
+
+        @Label("Column")
+        public int x;
+
+        @Label("Row")
+        public int y;
+
+        @Label("Lines Cleared")
+        public int linesCleared;
+    }
+
+    @Name("com.group16.tetris.LinesCleared")
+    @Label("Lines Cleared")
+    @Category({CATEGORY, "Game"})
+    @StackTrace(false)
+    public static final class LinesCleared extends Event {
+        @Label("Player")
+        public int player;
+
+        @Label("Lines")
+        public int lines;
+
+        @Label("Score")
+        public int score;
+
+        @Label("Level")
+        public int level;
+    }
+
+    @Name("com.group16.tetris.AiSearch")
+    @Label("AI Search")
+    @Description("Search for the best placement of a piece")
+    @Category({CATEGORY, "AI"})
+    @StackTrace(false)
+    public static final class AiSearch extends Event {
+        @Label("Player")
+        public int player;
+
+        @Label("Lookahead")
+        public boolean lookahead;
+
+        @Label("Target Column")
+        public int targetX;
+
+        @Label("Target Rotation")
+        public int targetRotation;
+    }
+
+    // Lasts from the request being made until its move (or the default move) is known
+    @Name("com.group16.tetris.ExternalRequest")
+    @Label("External Move Request")
+    @Category({CATEGORY, "Network"})
+    @StackTrace(false)
+    public static final class ExternalRequest extends Event {
+        @Label("Wire Format")
+        public String wireFormat;
+
+        @Label("Bytes Sent")
+        @DataAmount
+        public long bytesSent;
+
+        @Label("Bytes Received")
+        @DataAmount
+        public long bytesReceived;
+
+        @Label("Default Move")
+        @Description("The server didn't answer in time or its reply couldn't be read")
+        public boolean defaultMove;
+    }
+
+    @Name("com.group16.tetris.Repaint")
+    @Label("Repaint")
+    @Category({CATEGORY, "Rendering"})
+    @StackTrace(false)
+    public static final class Repaint extends Event {
+        @Label("Active Rendering")
+        public boolean activeRendering;
+
+        @Label("Clip X")
+        public int clipX;
+
+        @Label("Clip Y")
+        public int clipY;
+
+        @Label("Clip Width")
+        public int clipWidth;
+
+        @Label("Clip Height")
+        public int clipHeight;
+    }
+
+    // Starts a recording with the JDK's default settings plus the game's events, written to the file when the
+    // application exits
+    public static Recording startRecording(Path destination) throws IOException, ParseException {
+        Recording recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName("tetris");
+        recording.setToDisk(true);
+        recording.setDestination(destination);
+        recording.setDumpOnExit(true);
+        recording.start();
+        return recording;
+    }
+}
@@ -0,0 +1,146 @@
+package com.group16.tetris.services;
+
+import javax.swing.SwingUtilities;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Runs a game simulation on its own thread at a fixed timestep, so the game speed doesn't depend on how late the Swing
+// thread gets to timer events. Elapsed time is added to an accumulator and spent in whole steps; after a stall only a
+// few steps are caught up. Frames are handed to the Swing thread at their own rate with how far the simulation is into
+// the next step, so moving blocks can be drawn between two steps
+public class GameLoop {
+
+    // The game being run. step() and queued input run on the loop thread, render() on the Swing thread or, when
+    // rendering actively, on the loop thread. All of them hold the loop's lock
+    public interface Simulation {
+        void step();
+
+        void render(double alpha);
+    }
+
+    // Steps caught up at most before the rest of a stall is dropped
+    private static final int MAX_CATCH_UP_STEPS = 5;
+
+    private static final AtomicInteger LOOP_NUMBER = new AtomicInteger(1);
+
+    private final Simulation simulation;
+    private final long stepNanos;
+    private volatile long frameNanos;
+    private final Object lock = new Object();
+    private final Queue<Runnable> input = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean framePending = new AtomicBoolean();
+    private final Runnable renderFrame = this::renderFrame;
+
+    private volatile boolean running;
+    private volatile boolean renderOnLoopThread;
+    private volatile double alpha;  // Fraction of a step elapsed since the last step, when the latest frame was due
+    private Thread thread;
+
+    public GameLoop(Simulation simulation, long stepMillis, long frameMillis) {
+        this.simulation = simulation;
+        this.stepNanos = TimeUnit.MILLISECONDS.toNanos(stepMillis);
+        this.frameNanos = TimeUnit.MILLISECONDS.toNanos(frameMillis);
+    }
+
+    // Held while the simulation steps or renders. Other threads changing the game's state hold it too
+    public Object getLock() {
+        return lock;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "game-loop-" + LOOP_NUMBER.getAndIncrement());
+        thread.setDaemon(true);                                                 // Never stops the application closing
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Renders frames on the loop thread rather than handing them to the Swing thread, e.g. to draw straight to a
+    // BufferStrategy
+    public void setRenderOnLoopThread(boolean renderOnLoopThread) {
+        this.renderOnLoopThread = renderOnLoopThread;
+    }
+
+    public void setFrameMillis(long frameMillis) {
+        this.frameNanos = TimeUnit.MILLISECONDS.toNanos(frameMillis);
+    }
+
+    // Queues input, e.g. a key press from the Swing thread, to be handled on the loop thread before the next step
+    public void post(Runnable action) {
+        input.add(action);
+        Thread loopThread = thread;
+        if (loopThread != null) {
+            LockSupport.unpark(loopThread);                                     // Handle it now rather than next step
+        }
+    }
+
+    private void run() {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        long nextFrame = previous;
+
+        while (running) {
+            long now = System.nanoTime();
+            accumulator += now - previous;
+            previous = now;
+
+            int steps = 0;
+            synchronized (lock) {
+                Runnable action;
+                while ((action = input.poll()) != null) {
+                    action.run();
+                }
+                while (accumulator >= stepNanos && steps < MAX_CATCH_UP_STEPS) {
+                    simulation.step();
+                    accumulator -= stepNanos;
+                    steps++;
+                }
+            }
+            if (accumulator >= stepNanos) {
+                accumulator %= stepNanos;                                       // Too far behind, drop the rest
+            }
+
+            if (now - nextFrame >= 0) {
+                alpha = (double) accumulator / stepNanos;
+                nextFrame = now + frameNanos;
+                if (renderOnLoopThread) {
+                    synchronized (lock) {
+                        simulation.render(alpha);
+                    }
+                } else if (framePending.compareAndSet(false, true)) {
+                    // Frames the Swing thread hasn't got to yet are skipped rather than queued
+                    SwingUtilities.invokeLater(renderFrame);
+                }
+            }
+
+            // Sleep until the next step or frame is due, or input arrives
+            long untilStep = stepNanos - accumulator;
+            long untilFrame = nextFrame - System.nanoTime();
+            LockSupport.parkNanos(Math.max(0, Math.min(untilStep, untilFrame)));
+        }
+    }
+
+    private void renderFrame() {
+        framePending.set(false);
+        synchronized (lock) {
+            simulation.render(alpha);
+        }
+    }
+}
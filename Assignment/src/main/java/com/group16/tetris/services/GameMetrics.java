@@ -0,0 +1,136 @@
+package com.group16.tetris.services;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Latency histograms for the game's hot paths: game loop steps, painting, the time between frames, AI searches,
+// external server round trips and move requests, and the move request queue. Launching with -Dtetris.metrics.dump=SECONDS prints them every SECONDS seconds, and F3
+// in a game shows the frame rate and a few percentiles in player 1's info panel
+public final class GameMetrics {
+
+    private static final GameMetrics INSTANCE = new GameMetrics();
+
+    private static final long FPS_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LatencyHistogram tick = new LatencyHistogram("tick");
+    private final LatencyHistogram paint = new LatencyHistogram("paint");
+    private final LatencyHistogram frame = new LatencyHistogram("frame");
+    private final LatencyHistogram aiDecision = new LatencyHistogram("ai");
+    private final LatencyHistogram externalRoundTrip = new LatencyHistogram("external");
+
+    // Frames rendered in the current and the last complete one second window. Frames are rendered on the Swing thread
+    // or, when rendering actively, the game loop thread, so they are written under this object's lock
+    private long lastFrameNanos;
+    private long windowStartNanos;
+    private int framesInWindow;
+    private volatile int framesPerSecond;
+
+    private ScheduledExecutorService dumpExecutor;
+
+    // Move requests of the running game, or null before a game is created
+    private volatile MoveRequestService moveRequests;
+
+    private GameMetrics() {
+    }
+
+    public static GameMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    // Records that a frame was rendered at the given System.nanoTime() reading, for the frame time and frame rate
+    public synchronized void frameRendered(long nowNanos) {
+        if (lastFrameNanos != 0) {
+            frame.record(nowNanos - lastFrameNanos);
+        }
+        lastFrameNanos = nowNanos;
+
+        framesInWindow++;
+        if (nowNanos - windowStartNanos >= FPS_WINDOW_NANOS) {
+            framesPerSecond = (windowStartNanos == 0) ? 0 : framesInWindow;
+            windowStartNanos = nowNanos;
+            framesInWindow = 0;
+        }
+    }
+
+    public int getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    public LatencyHistogram getTick() {
+        return tick;
+    }
+
+    public LatencyHistogram getPaint() {
+        return paint;
+    }
+
+    public LatencyHistogram getFrame() {
+        return frame;
+    }
+
+    public LatencyHistogram getAiDecision() {
+        return aiDecision;
+    }
+
+    public LatencyHistogram getExternalRoundTrip() {
+        return externalRoundTrip;
+    }
+
+    public void setMoveRequestService(MoveRequestService moveRequests) {
+        this.moveRequests = moveRequests;
+    }
+
+    // Requests waiting for a move worker, or 0 if there's no game
+    public int getMoveRequestQueueDepth() {
+        MoveRequestService requests = moveRequests;
+        return requests == null ? 0 : requests.getQueueDepth();
+    }
+
+    public List<LatencyHistogram> getHistograms() {
+        MoveRequestService requests = moveRequests;
+        return requests == null ? List.of(tick, paint, frame, aiDecision, externalRoundTrip)
+                : List.of(tick, paint, frame, aiDecision, externalRoundTrip, requests.getLatency());
+    }
+
+    // Clears every histogram, e.g. at the start of a game so the numbers describe only that game
+    public void reset() {
+        for (LatencyHistogram histogram : getHistograms()) {
+            histogram.reset();
+        }
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder("Game metrics (" + framesPerSecond + " fps)");
+        for (LatencyHistogram histogram : getHistograms()) {
+            summary.append(System.lineSeparator()).append("  ").append(histogram);
+        }
+        MoveRequestService requests = moveRequests;
+        if (requests != null) {
+            summary.append(System.lineSeparator()).append("  ").append(requests);
+        }
+        return summary.toString();
+    }
+
+    // Prints the summary every given number of seconds on a daemon thread. Does nothing if seconds isn't positive or
+    // the dump is already running
+    public synchronized void startPeriodicDump(int seconds) {
+        if (seconds <= 0 || dumpExecutor != null) {
+            return;
+        }
+        dumpExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumpExecutor.scheduleAtFixedRate(() -> System.out.println(summary()), seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stopPeriodicDump() {
+        if (dumpExecutor != null) {
+            dumpExecutor.shutdownNow();
+            dumpExecutor = null;
+        }
+    }
+}
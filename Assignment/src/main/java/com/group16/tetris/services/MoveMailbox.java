@@ -0,0 +1,25 @@
+package com.group16.tetris.services;
+
+import com.group16.tetris.models.PlannedMove;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Single-slot handoff of planned moves from a move thread to the game loop. A newer move replaces one that hasn't been
+// taken yet, so the game loop only ever sees the latest result
+public class MoveMailbox {
+
+    private final AtomicReference<PlannedMove> slot = new AtomicReference<>();
+
+    public void publish(PlannedMove move) {
+        slot.set(move);
+    }
+
+    // Removes and returns the waiting move, or null if there isn't one
+    public PlannedMove take() {
+        return slot.getAndSet(null);
+    }
+
+    public void clear() {
+        slot.set(null);
+    }
+}
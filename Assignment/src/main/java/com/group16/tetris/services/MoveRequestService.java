@@ -0,0 +1,153 @@
+package com.group16.tetris.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs AI move requests on a small pool of reused threads and tracks external ones, at most one pending request per
+// player
+public class MoveRequestService {
+
+    // One worker per player, so both players can be searching at the same time
+    private static final int WORKER_THREADS = 2;
+
+    // Requests waiting for a worker. Each player only has one live request, so this only fills up with stale ones
+    private static final int QUEUE_CAPACITY = 4;
+
+    // Idle workers are stopped after this long, so a finished game doesn't keep threads alive
+    private static final long IDLE_TIMEOUT_SECONDS = 30;
+
+    private static final int MAX_PLAYERS = 2;
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
+    private final ThreadPoolExecutor executor;
+    private final Future<?>[] pendingRequests = new Future<?>[MAX_PLAYERS];
+
+    // Request statistics, readable from any thread
+    private final AtomicLong completedRequests = new AtomicLong();
+    private final AtomicLong cancelledRequests = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong lastLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final LatencyHistogram latency = new LatencyHistogram("request");
+
+    public MoveRequestService() {
+        executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), createThreadFactory(),
+                new ThreadPoolExecutor.DiscardOldestPolicy());                 // Drop the stalest request when full
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    // Daemon threads so a running search never stops the application from closing
+    private static ThreadFactory createThreadFactory() {
+        int poolNumber = POOL_NUMBER.getAndIncrement();
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, "move-request-" + poolNumber + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Queues a move request for a player, cancelling the player's previous request if it hasn't finished yet
+    public synchronized Future<?> submit(int player, Runnable request) {
+        cancel(player);
+        long submittedAt = System.nanoTime();
+        Future<?> future = executor.submit(() -> {
+            request.run();
+            recordLatency(System.nanoTime() - submittedAt);
+        });
+        pendingRequests[player - 1] = future;
+        return future;
+    }
+
+    // Tracks a request that completes on another thread (such as the non-blocking client), so it is cancelled and
+    // timed the same way as a request run by the pool
+    public synchronized <T> CompletableFuture<T> track(int player, CompletableFuture<T> request) {
+        cancel(player);
+        long submittedAt = System.nanoTime();
+        request.whenComplete((result, error) -> {
+            if (!request.isCancelled()) {
+                recordLatency(System.nanoTime() - submittedAt);
+            }
+        });
+        pendingRequests[player - 1] = request;
+        return request;
+    }
+
+    // Cancels the player's pending request, e.g. when the block locks before the move arrives
+    public synchronized void cancel(int player) {
+        Future<?> future = pendingRequests[player - 1];
+        pendingRequests[player - 1] = null;
+        if (future != null && !future.isDone() && future.cancel(true)) {
+            if (future instanceof Runnable queuedRequest) {
+                executor.remove(queuedRequest);                                 // Free its slot in the queue
+            }
+            cancelledRequests.incrementAndGet();
+        }
+    }
+
+    private void recordLatency(long latencyNanos) {
+        completedRequests.incrementAndGet();
+        totalLatencyNanos.addAndGet(latencyNanos);
+        lastLatencyNanos.set(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+        latency.record(latencyNanos);
+    }
+
+    // Stops the workers, interrupting any request still running
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Number of requests waiting for a worker
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    // Number of requests currently being computed
+    public int getActiveRequests() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedRequests() {
+        return completedRequests.get();
+    }
+
+    public long getCancelledRequests() {
+        return cancelledRequests.get();
+    }
+
+    // Time from submitting a request until its move is known (the search or the server's reply finishing), in
+    // milliseconds. The move is applied on the next game step
+    public double getAverageLatencyMillis() {
+        long completed = completedRequests.get();
+        return completed == 0 ? 0 : totalLatencyNanos.get() / (completed * 1_000_000.0);
+    }
+
+    public double getLastLatencyMillis() {
+        return lastLatencyNanos.get() / 1_000_000.0;
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+
+    // The same request times as a histogram, for percentiles
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    // One line summary of the queue and request counts, e.g. for a metrics dump
+    @Override
+    public String toString() {
+        return String.format("requests queued=%d active=%d completed=%d cancelled=%d", getQueueDepth(),
+                getActiveRequests(), getCompletedRequests(), getCancelledRequests());
+    }
+}
@@ -0,0 +1,115 @@
+package com.group16.tetris.services;
+
+import com.group16.tetris.utils.JsonFileException;
+import com.group16.tetris.utils.JsonReaderAndWriter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Writes JSON files on a background thread, so saving never blocks the Swing thread on disk I/O. Only the latest
+// content of each file is kept while a write is waiting, so saving the same file repeatedly costs one write. Writes
+// still waiting when the application exits are flushed, waiting at most SHUTDOWN_FLUSH_MILLIS
+public class PersistenceService {
+
+    public static final long SHUTDOWN_FLUSH_MILLIS = 2000;
+
+    private static final PersistenceService INSTANCE = new PersistenceService();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> INSTANCE.flush(SHUTDOWN_FLUSH_MILLIS, TimeUnit.MILLISECONDS), "persistence-flush"));
+    }
+
+    // Latest content waiting to be written, by file path
+    private final Map<String, String> pendingWrites = new ConcurrentHashMap<>();
+
+    private final ExecutorService writer;
+    private volatile Throwable lastFailure;
+
+    public PersistenceService() {
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "persistence");
+            thread.setDaemon(true);                                             // The shutdown hook flushes it instead
+            return thread;
+        });
+    }
+
+    // The shared service, flushed when the application exits
+    public static PersistenceService getInstance() {
+        return INSTANCE;
+    }
+
+    // Queues the JSON to be written to the file, replacing anything still waiting for the same file. The JSON should be
+    // serialised by the caller, so later changes to the saved objects don't leak into the file
+    public void write(String relativePath, String json) {
+        if (pendingWrites.put(relativePath, json) == null) {
+            try {
+                writer.execute(this::writePending);
+            } catch (RuntimeException e) {
+                writePending();                                                 // Shut down, so write it here
+            }
+        }
+    }
+
+    // Queues the JSON for the high scores file
+    public void writeScores(String json) {
+        write(JsonReaderAndWriter.scoresRelativePath, json);
+    }
+
+    // Queues the JSON for the configuration settings file
+    public void writeConfiguration(String json) {
+        write(JsonReaderAndWriter.configurationRelativePath, json);
+    }
+
+    // Writes everything waiting, and returns whether it finished within the timeout
+    public boolean flush(long timeout, TimeUnit unit) {
+        try {
+            Future<?> flushed = writer.submit(this::writePending);
+            flushed.get(timeout, unit);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        } catch (RuntimeException e) {
+            writePending();                                                     // Shut down, so write it here
+            return pendingWrites.isEmpty();
+        }
+    }
+
+    // Flushes, then stops the writer thread. Later writes happen on the caller's thread
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        boolean flushed = flush(timeout, unit);
+        writer.shutdown();
+        return flushed;
+    }
+
+    // Returns the last write that failed, or null if none has
+    public Throwable getLastFailure() {
+        return lastFailure;
+    }
+
+    // Each file is removed from the pending map before it is written, so content queued during the write is written
+    // again afterwards rather than lost
+    private synchronized void writePending() {
+        for (String relativePath : pendingWrites.keySet()) {
+            String json = pendingWrites.remove(relativePath);
+            if (json == null) {
+                continue;
+            }
+            try {
+                JsonReaderAndWriter.writeJsonToFile(relativePath, json);
+            } catch (JsonFileException e) {
+                lastFailure = e;
+                e.printStackTrace();
+            }
+        }
+    }
+}
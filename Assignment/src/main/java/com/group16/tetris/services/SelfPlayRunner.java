@@ -0,0 +1,174 @@
+package com.group16.tetris.services;
+
+import com.group16.tetris.models.GameEngine;
+import com.group16.tetris.models.PieceSequence;
+import com.group16.tetris.models.SelfPlayResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Plays seeded AI games headlessly on GameEngine, one game per thread across all cores, to evaluate TetrisAI without
+// watching games in the UI. Run it with: gradle selfPlay --args="--games 1000 --pieces 500"
+public class SelfPlayRunner {
+
+    private static final String USAGE = "Usage: selfPlay [--games N] [--pieces N] [--seed N] [--threads N] "
+            + "[--width N] [--height N] [--level N] [--lookahead] [--bag]";
+
+    private final int fieldWidth;
+    private final int fieldHeight;
+    private final int gameLevel;
+    private final int maxPieces;          // Games are stopped after this many pieces, as a good AI may never top out
+    private final boolean lookahead;
+    private final PieceSequence.Distribution distribution;
+
+    // Games run on their own threads, so each search stays on the thread that runs its game. Lookahead searches run
+    // to completion however busy the cores are, so a seed replays the same game with or without lookahead
+    private final TetrisAI aiManager = new TetrisAI(TetrisAI.SearchMode.SEQUENTIAL);
+
+    public SelfPlayRunner(int fieldWidth, int fieldHeight, int gameLevel, int maxPieces, boolean lookahead) {
+        this(fieldWidth, fieldHeight, gameLevel, maxPieces, lookahead, PieceSequence.Distribution.UNIFORM);
+    }
+
+    public SelfPlayRunner(int fieldWidth, int fieldHeight, int gameLevel, int maxPieces, boolean lookahead,
+            PieceSequence.Distribution distribution) {
+        this.fieldWidth = fieldWidth;
+        this.fieldHeight = fieldHeight;
+        this.gameLevel = gameLevel;
+        this.maxPieces = maxPieces;
+        this.lookahead = lookahead;
+        this.distribution = distribution;
+        aiManager.setLookaheadTimeLimited(false);
+    }
+
+    // Plays one game to the end or the piece limit. The same seed always deals the same blocks
+    public SelfPlayResult playGame(long seed) {
+        PieceSequence pieces = new PieceSequence(seed, distribution);
+        GameEngine engine = new GameEngine(fieldWidth, fieldHeight, gameLevel, pieces);
+        int[] piecesPlaced = new int[1];
+        engine.setListener(new GameEngine.Listener() {
+            @Override
+            public void onBlockSpawned() {
+                int[] move = lookahead
+                        ? aiManager.findBestMoveWithLookahead(engine.getBoard(), engine.getFeatures(),
+                                engine.getCurrentPiece(), engine.getNextPiece())
+                        : aiManager.findBestMove(engine.getBoard(), engine.getFeatures(), engine.getCurrentPiece());
+                engine.setTarget(move[2], move[1]);
+            }
+
+            @Override
+            public void onBlockSettled() {
+                piecesPlaced[0]++;
+            }
+        });
+        engine.newGame(fieldWidth, fieldHeight, gameLevel, pieces);
+        engine.spawnBlock();
+
+        // Same steering and gravity as a computer player in the UI, without waiting for the timer
+        while (!engine.isGameEnded() && piecesPlaced[0] < maxPieces) {
+            engine.tick(true);
+        }
+        return new SelfPlayResult(seed, engine.getDeletedRows(), engine.getScore(), piecesPlaced[0],
+                engine.isGameEnded());
+    }
+
+    // Plays games for seeds firstSeed to firstSeed + games - 1 on the given number of threads, returned in seed order
+    public List<SelfPlayResult> playGames(long firstSeed, int games, int threads) throws InterruptedException {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "self-play-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Callable<SelfPlayResult>> tasks = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                long seed = firstSeed + i;
+                tasks.add(() -> playGame(seed));
+            }
+            List<SelfPlayResult> results = new ArrayList<>(games);
+            for (Future<SelfPlayResult> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Self-play game failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int games = 1000;
+        int maxPieces = 500;
+        long firstSeed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int width = 10;
+        int height = 20;
+        int level = 1;
+        boolean lookahead = false;
+        PieceSequence.Distribution distribution = PieceSequence.Distribution.UNIFORM;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--games" -> games = Integer.parseInt(args[++i]);
+                    case "--pieces" -> maxPieces = Integer.parseInt(args[++i]);
+                    case "--seed" -> firstSeed = Long.parseLong(args[++i]);
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--width" -> width = Integer.parseInt(args[++i]);
+                    case "--height" -> height = Integer.parseInt(args[++i]);
+                    case "--level" -> level = Integer.parseInt(args[++i]);
+                    case "--lookahead" -> lookahead = true;
+                    case "--bag" -> distribution = PieceSequence.Distribution.BAG;
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (games < 1 || maxPieces < 1 || threads < 1) {
+                throw new IllegalArgumentException("--games, --pieces and --threads must be at least 1");
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        SelfPlayRunner runner = new SelfPlayRunner(width, height, level, maxPieces, lookahead, distribution);
+        long start = System.nanoTime();
+        List<SelfPlayResult> results = runner.playGames(firstSeed, games, threads);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        printSummary(results, firstSeed, threads, seconds);
+    }
+
+    private static void printSummary(List<SelfPlayResult> results, long firstSeed, int threads, double seconds) {
+        long totalLines = 0;
+        long totalScore = 0;
+        long totalPieces = 0;
+        int bestScore = 0;
+        int gamesOver = 0;
+        for (SelfPlayResult result : results) {
+            totalLines += result.linesCleared();
+            totalScore += result.score();
+            totalPieces += result.piecesPlaced();
+            bestScore = Math.max(bestScore, result.score());
+            if (result.gameOver()) {
+                gamesOver++;
+            }
+        }
+        int games = results.size();
+
+        System.out.printf("Played %d games (seeds %d to %d) on %d threads in %.2f s%n",
+                games, firstSeed, firstSeed + games - 1, threads, seconds);
+        System.out.printf("Lines cleared: %d total, %.1f per game%n", totalLines, (double) totalLines / games);
+        System.out.printf("Score: %.1f per game, best %d%n", (double) totalScore / games, bestScore);
+        System.out.printf("Pieces placed: %d total, %.1f per game%n", totalPieces, (double) totalPieces / games);
+        System.out.printf("Games ended before the piece limit: %d%n", gamesOver);
+        System.out.printf("Throughput: %.0f pieces/sec, %.0f games/min%n",
+                totalPieces / seconds, games * 60 / seconds);
+    }
+}
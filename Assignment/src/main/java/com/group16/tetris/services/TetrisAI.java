@@ -1,36 +1,211 @@
 package com.group16.tetris.services;
 
+import com.group16.tetris.models.BitBoard;
 import com.group16.tetris.models.BlockModel;
+import com.group16.tetris.models.BoardFeatures;
 import com.group16.tetris.models.GameModel;
+import com.group16.tetris.models.PieceMask;
+import com.group16.tetris.models.PieceRotation;
 
-import javax.swing.*;
-import java.awt.Robot;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.awt.event.KeyEvent;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 public class TetrisAI {
 
+    // Number of best first placements that are searched again with the next block in lookahead mode
+    private static final int LOOKAHEAD_BEAM_WIDTH = 6;
+
+    // Lookahead stops expanding first placements after one game step
+    private static final long LOOKAHEAD_TIME_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(GameModel.STEP_DELAY);
+
+    // Columns of one rotation searched by each fork/join task before it stops splitting
+    private static final int PARALLEL_COLUMNS_PER_TASK = 4;
+
+    // How placements are searched: on the calling thread, or split across the common fork/join pool
+    public enum SearchMode {
+        SEQUENTIAL,
+        PARALLEL
+    }
+
+    // Best placements found by a search, kept in order of score and then the order scanBoard would visit them
+    private static final class MoveBeam {
+        private final int[] scores;
+        private final int[] rotations;
+        private final int[] xs;
+        private final int[] ys;
+        private int size;
+
+        private MoveBeam(int capacity) {
+            scores = new int[capacity];
+            rotations = new int[capacity];
+            xs = new int[capacity];
+            ys = new int[capacity];
+        }
+
+        // Inserts a placement if it ranks among the best seen so far
+        private void offer(int score, int rotation, int x, int y) {
+            int index = size;
+            while (index > 0 && ranksAbove(score, rotation, x, y, index - 1)) {
+                index--;
+            }
+            if (index == scores.length) {
+                return;
+            }
+            int moved = Math.min(size, scores.length - 1) - index;
+            System.arraycopy(scores, index, scores, index + 1, moved);
+            System.arraycopy(rotations, index, rotations, index + 1, moved);
+            System.arraycopy(xs, index, xs, index + 1, moved);
+            System.arraycopy(ys, index, ys, index + 1, moved);
+            scores[index] = score;
+            rotations[index] = rotation;
+            xs[index] = x;
+            ys[index] = y;
+            size = Math.min(size + 1, scores.length);
+        }
+
+        // Higher scores rank first; equal scores keep scanBoard's order: rotation, rows bottom up, columns left to right
+        private boolean ranksAbove(int score, int rotation, int x, int y, int index) {
+            if (score != scores[index]) {
+                return score > scores[index];
+            }
+            if (rotation != rotations[index]) {
+                return rotation < rotations[index];
+            }
+            return y > ys[index] || (y == ys[index] && x < xs[index]);
+        }
+
+        // Offers every placement of another beam, so partial results merge the same way regardless of split order
+        private void offerAll(MoveBeam other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.scores[i], other.rotations[i], other.xs[i], other.ys[i]);
+            }
+        }
+
+        // Writes the best placement into a move array, or the lowest possible score if nothing was found
+        private int[] copyBest(int[] move) {
+            move[0] = size > 0 ? scores[0] : Integer.MIN_VALUE;
+            move[1] = size > 0 ? rotations[0] : 0;
+            move[2] = size > 0 ? xs[0] : 0;
+            move[3] = size > 0 ? ys[0] : 0;
+            return move;
+        }
+    }
+
+    // Reusable per-thread buffers, so scoring placements applies and undoes the shape instead of copying the board
+    private static final class ScoringScratch {
+        private BitBoard board;
+        private long[] savedRows = new long[4];
+        private int[] columnTops = new int[0];
+        private BitBoard lookaheadBoard;
+        private final MoveBeam bestMoveBeam = new MoveBeam(1);
+        private final MoveBeam lookaheadBeam = new MoveBeam(LOOKAHEAD_BEAM_WIDTH);
+
+        // Returns the scratch board holding a copy of the given board, only allocating when the size changes
+        private BitBoard boardFor(BitBoard source) {
+            if (board == null || board.getWidth() != source.getWidth() || board.getHeight() != source.getHeight()) {
+                board = new BitBoard(source);
+            } else {
+                board.copyFrom(source);
+            }
+            return board;
+        }
+
+        // Returns the board used to simulate a first placement before searching the next block
+        private BitBoard lookaheadBoardFor(BitBoard source) {
+            if (lookaheadBoard == null || lookaheadBoard.getWidth() != source.getWidth()
+                    || lookaheadBoard.getHeight() != source.getHeight()) {
+                lookaheadBoard = new BitBoard(source);
+            }
+            return lookaheadBoard;
+        }
+
+        // Returns a buffer large enough to remember the rows touched by a shape
+        private long[] savedRows(int shapeHeight) {
+            if (savedRows.length < shapeHeight) {
+                savedRows = new long[shapeHeight];
+            }
+            return savedRows;
+        }
+
+        // Returns a buffer for the top occupied row of each column
+        private int[] columnTops(int boardWidth) {
+            if (columnTops.length != boardWidth) {
+                columnTops = new int[boardWidth];
+            }
+            return columnTops;
+        }
+    }
+
+    private static final ThreadLocal<ScoringScratch> SCRATCH = ThreadLocal.withInitial(ScoringScratch::new);
+
+    private SearchMode searchMode;
+
+    // Whether lookahead stops at the time budget. Without it a search depends only on the board and blocks, so seeded
+    // games replay exactly whatever the machine's load
+    private boolean lookaheadTimeLimited = true;
+
+    // Uses the parallel search when the game is launched with -Dtetris.ai.parallel=true
+    public TetrisAI() {
+        this(Boolean.getBoolean("tetris.ai.parallel") ? SearchMode.PARALLEL : SearchMode.SEQUENTIAL);
+    }
+
+    public TetrisAI(SearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+
+    public void setSearchMode(SearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+
+    public boolean isLookaheadTimeLimited() {
+        return lookaheadTimeLimited;
+    }
+
+    public void setLookaheadTimeLimited(boolean lookaheadTimeLimited) {
+        this.lookaheadTimeLimited = lookaheadTimeLimited;
+    }
+
     public int[] scanBoard(boolean[][] board, BlockModel block) {
+        return scanBoard(BitBoard.fromArray(board), block);
+    }
+
+    public int[] scanBoard(BitBoard board, BlockModel block) {
+        return scanBoard(board, block, new int[4]);
+    }
+
+    // Scans the board for the best placement, writing the result into highestScore so repeated scans can reuse it
+    public int[] scanBoard(BitBoard board, BlockModel block, int[] highestScore) {
         // Number of time a shape can be rotated. 3 times for each shape that isn't square
         int maxRotations = (block.getShapeType() == BlockModel.ShapeType.SQUARE) ? 0 : 3;
-        
-        int[] highestScore = new int[4];                                        // Index 0: score, 1: rotation, 2: x, 3: y
-        highestScore[0] = Integer.MIN_VALUE;                                    // Start with the lowest possible score
-        boolean[][] shape = block.getBlockShape();                              // Set the shape as a boolean
-        
+
+        // Work on this thread's copy of the board so placements can be applied and undone in place
+        ScoringScratch scratch = SCRATCH.get();
+        BitBoard workBoard = scratch.boardFor(board);
+
+        // Index 0: score, 1: rotation, 2: x, 3: y. Start with the lowest possible score
+        highestScore[0] = Integer.MIN_VALUE;
+        highestScore[1] = 0;
+        highestScore[2] = 0;
+        highestScore[3] = 0;
+        PieceMask piece = PieceMask.of(block.getBlockShape());                  // Row bitmasks for the current rotation
+        long[] savedRows = scratch.savedRows(Math.max(piece.getHeight(), piece.getWidth()));
+
         // Loop for the number of maximum rotations
         for (int rotation = 0; rotation <= maxRotations; rotation++) {
-            for (int y = board.length - 1; y >= 0; y--) {                       // Start from the last row and move upwards
-                boolean rowIsEmpty = true;                                      // Assume the row is empty at the start
-                for (int x = 0; x < board[0].length; x++) {                     // Iterate through each column
-                    if (board[y][x]) {
-                        rowIsEmpty = false;                                     // If we find a true in this row, the row is not empty
-                    }
+            for (int y = workBoard.getHeight() - 1; y >= 0; y--) {              // Start from the last row and move upwards
+                boolean rowIsEmpty = workBoard.isRowEmpty(y);                   // Check the whole row in one word
+                for (int x = 0; x < workBoard.getWidth(); x++) {                // Iterate through each column
                     // Call the isValidPlacement method for the current (x, y) position
-                    if (isValidPlacement(board, shape, x, y)) {
+                    if (isValidPlacement(workBoard, piece, x, y)) {
                         // Get the score for the position
-                        int score = scorePosition(board, shape, x, y);
+                        int score = scorePlacement(workBoard, piece, x, y, savedRows);
                         // If the score is higher than the previous, store it as the new highest
                         if (score > highestScore[0]) {
                             highestScore[0] = score;
@@ -41,54 +216,346 @@ public class TetrisAI {
                     }
                 }
                 // If the entire row is empty, and it's not the last row, stop rotation and scanning
-                if (rowIsEmpty && y < board.length - 1) {
+                if (rowIsEmpty && y < workBoard.getHeight() - 1) {
                     break;
                 }
             }
             // Rotate the block to the next shape, except for the last rotation
             if (rotation < maxRotations) {
-                shape = rotateShape(shape);
+                piece = piece.rotateClockwise();
             }
         }
         return highestScore;
     }
     
-    public boolean isValidPlacement(boolean[][] board, boolean[][] shape, int x, int y) {
-        int shapeHeight = shape.length;
-        int shapeWidth = shape[0].length;
-        boolean hasSupport = false;                                                             // Set a flag to check if there's at least one block below the shape
-
-        // Loop through the shape starting from the bottom row, left to right, moving upwards
-        for (int i = shapeHeight - 1; i >= 0; i--) {                                            // Start from the bottom row of the shape
-            for (int j = 0; j < shapeWidth; j++) {                                              // Move left to right across the row
-                if (shape[i][j]) {                                                              // If this part of the shape is filled
-                    int boardX = x + j;                                                         // Calculate the corresponding X position on the board
-                    int boardY = y - (shapeHeight - 1 - i);                                     // Calculate the corresponding Y position on the board
-
-                    // Check if the board position is out of bounds
-                    if (boardX < 0 || boardX >= board[0].length || boardY < 0 || boardY >= board.length) {
-                        return false;
-                    }
+    public int[] findBestMove(BitBoard board, BlockModel block) {
+        return findBestMove(board, block, new int[4]);
+    }
 
-                    // Check if the board position is already occupied by another block
-                    if (board[boardY][boardX]) {
-                        return false;
-                    }
+    public int[] findBestMove(BitBoard board, BlockModel block, int[] bestMove) {
+        return findBestMove(board, null, PieceMask.of(block.getBlockShape()), maxRotations(block.getShapeType()),
+                bestMove);
+    }
 
-                    // Check if there's support beneath the current block part
-                    if (boardY + 1 < board.length && board[boardY + 1][boardX]) {
-                        hasSupport = true;  // There is a block beneath, so the shape has support
-                    }
+    public int[] findBestMove(BitBoard board, PieceRotation piece) {
+        return findBestMove(board, null, piece, new int[4]);
+    }
 
-                    // Edge case: If this block is on the last row, it is considered supported by the floor
-                    if (boardY + 1 >= board.length) {
-                        hasSupport = true;  // The block is on the last row, so it has support
-                    }
+    // Searches with the column heights and holes already known for the board, e.g. kept by GameEngine as blocks lock
+    public int[] findBestMove(BitBoard board, BoardFeatures features, PieceRotation piece) {
+        return findBestMove(board, features, piece, new int[4]);
+    }
+
+    private int[] findBestMove(BitBoard board, BoardFeatures features, PieceRotation piece, int[] bestMove) {
+        return findBestMove(board, features, piece.getMask(), maxRotations(piece.getShapeType()), bestMove);
+    }
+
+    // Finds the same move as scanBoard, but only scores the row each rotation comes to rest on in each column. The
+    // features are measured from the board when null
+    private int[] findBestMove(BitBoard board, BoardFeatures features, PieceMask piece, int maxRotations,
+                               int[] bestMove) {
+        if (searchMode == SearchMode.PARALLEL) {
+            return searchPlacementsInParallel(new BitBoard(board), features, piece, maxRotations, 1)
+                    .copyBest(bestMove);
+        }
+        ScoringScratch scratch = SCRATCH.get();
+        searchPlacements(board, features, piece, maxRotations, scratch, scratch.bestMoveBeam);
+        return scratch.bestMoveBeam.copyBest(bestMove);
+    }
+
+    public int[] findBestMoveWithLookahead(BitBoard board, BlockModel block, BlockModel nextBlock) {
+        return findBestMoveWithLookahead(board, block, nextBlock, new int[4]);
+    }
+
+    public int[] findBestMoveWithLookahead(BitBoard board, BlockModel block, BlockModel nextBlock, int[] bestMove) {
+        return findBestMoveWithLookahead(board, null, PieceMask.of(block.getBlockShape()),
+                maxRotations(block.getShapeType()),
+                nextBlock == null ? null : PieceMask.of(nextBlock.getBlockShape()),
+                nextBlock == null ? 0 : maxRotations(nextBlock.getShapeType()), bestMove);
+    }
+
+    public int[] findBestMoveWithLookahead(BitBoard board, PieceRotation piece, PieceRotation nextPiece) {
+        return findBestMoveWithLookahead(board, null, piece, nextPiece);
+    }
+
+    // Searches with the column heights and holes already known for the board. The next block is searched on boards
+    // that only exist during the search, so those are still measured
+    public int[] findBestMoveWithLookahead(BitBoard board, BoardFeatures features, PieceRotation piece,
+                                           PieceRotation nextPiece) {
+        return findBestMoveWithLookahead(board, features, piece.getMask(), maxRotations(piece.getShapeType()),
+                nextPiece == null ? null : nextPiece.getMask(),
+                nextPiece == null ? 0 : maxRotations(nextPiece.getShapeType()), new int[4]);
+    }
+
+    // Searches placements of the current block followed by the next block, and returns the first placement of the
+    // best pair. Only the top first placements are expanded, and expansion stops once the time budget is spent (if
+    // the search is time limited)
+    private int[] findBestMoveWithLookahead(BitBoard board, BoardFeatures features, PieceMask piece, int maxRotations,
+                                            PieceMask nextPiece, int nextMaxRotations, int[] bestMove) {
+        long deadline = lookaheadTimeLimited ? System.nanoTime() + LOOKAHEAD_TIME_BUDGET_NANOS : Long.MAX_VALUE;
+
+        // Search the first block, in parallel on a private copy of the board when that mode is selected
+        MoveBeam firstPly;
+        if (searchMode == SearchMode.PARALLEL) {
+            board = new BitBoard(board);
+            firstPly = searchPlacementsInParallel(board, features, piece, maxRotations, LOOKAHEAD_BEAM_WIDTH);
+        } else {
+            ScoringScratch scratch = SCRATCH.get();
+            firstPly = scratch.lookaheadBeam;
+            searchPlacements(board, features, piece, maxRotations, scratch, firstPly);
+        }
+
+        // Fall back to the best single placement if the next block can't be searched
+        firstPly.copyBest(bestMove);
+        if (firstPly.size == 0 || nextPiece == null) {
+            return bestMove;
+        }
+
+        BitBoard firstBoard = board;
+        MoveBeam firstPlacements = firstPly;
+        long bestCombinedScore = Long.MIN_VALUE;
+
+        // Score each expanded pair, in parallel if selected; each slot is written by one task only
+        long[] combinedScores = new long[firstPly.size];
+        IntStream expansions = IntStream.range(0, firstPly.size);
+        if (searchMode == SearchMode.PARALLEL) {
+            expansions = expansions.parallel();
+        }
+        expansions.forEach(i -> combinedScores[i] = (i > 0 && System.nanoTime() > deadline)
+                ? Long.MIN_VALUE                                                // Keep the search within one game tick
+                : scoreWithNextBlock(firstBoard, piece, firstPlacements, i, nextPiece, nextMaxRotations));
+
+        // Strictly higher keeps the better first placement when pairs tie
+        for (int i = 0; i < firstPly.size; i++) {
+            if (combinedScores[i] > bestCombinedScore) {
+                bestCombinedScore = combinedScores[i];
+                bestMove[0] = (int) combinedScores[i];
+                bestMove[1] = firstPly.rotations[i];
+                bestMove[2] = firstPly.xs[i];
+                bestMove[3] = firstPly.ys[i];
+            }
+        }
+        return bestMove;
+    }
+
+    // Places the i-th first placement, clears completed rows and adds the best score of the next block, or returns
+    // MIN_VALUE if the next block would have nowhere to go
+    private long scoreWithNextBlock(BitBoard board, PieceMask piece, MoveBeam firstPly, int i, PieceMask nextPiece,
+                                    int nextMaxRotations) {
+        ScoringScratch scratch = SCRATCH.get();
+        PieceMask placed = piece;
+        for (int rotation = 0; rotation < firstPly.rotations[i]; rotation++) {
+            placed = placed.rotateClockwise();
+        }
+        BitBoard afterFirstPlacement = scratch.lookaheadBoardFor(board);
+        afterFirstPlacement.copyFrom(board);
+        afterFirstPlacement.place(placed, firstPly.xs[i], firstPly.ys[i] - (placed.getHeight() - 1));
+        afterFirstPlacement.clearFullRows();
+
+        MoveBeam secondPly = scratch.bestMoveBeam;
+        searchPlacements(afterFirstPlacement, null, nextPiece, nextMaxRotations, scratch, secondPly);
+        return secondPly.size == 0 ? Long.MIN_VALUE : (long) firstPly.scores[i] + secondPly.scores[0];
+    }
+
+    // Number of time a shape can be rotated. 3 times for each shape that isn't square
+    private int maxRotations(BlockModel.ShapeType shapeType) {
+        return (shapeType == BlockModel.ShapeType.SQUARE) ? 0 : 3;
+    }
+
+    // Collects the best placements of a shape into the beam. Resting rows come from the column heights; columns with
+    // covered holes are also walked below the drop row, since a shape can be valid and supported under an overhang
+    private void searchPlacements(BitBoard board, BoardFeatures features, PieceMask piece, int maxRotations,
+                                  ScoringScratch scratch, MoveBeam beam) {
+        BitBoard workBoard = scratch.boardFor(board);
+        int boardWidth = workBoard.getWidth();
+
+        // Take the column heights and holes from the features, or measure them once, then find the highest row
+        // scanBoard would reach
+        int[] columnTops = scratch.columnTops(boardWidth);
+        long holeColumns = measureColumns(workBoard, features, columnTops);
+        int scanLimit = findScanLimit(workBoard, features);
+
+        beam.size = 0;
+        long[] savedRows = scratch.savedRows(Math.max(piece.getHeight(), piece.getWidth()));
+
+        for (int rotation = 0; rotation <= maxRotations; rotation++) {
+            searchColumns(workBoard, piece, rotation, 0, boardWidth, columnTops, holeColumns, scanLimit, savedRows, beam);
+            // Rotate the block to the next shape, except for the last rotation
+            if (rotation < maxRotations) {
+                piece = piece.rotateClockwise();
+            }
+        }
+    }
+
+    // Splits the (rotation, column) candidates across the common fork/join pool. The beams of each task are merged by
+    // score and scan order, so the result is the same as the sequential search whichever thread finishes first
+    private MoveBeam searchPlacementsInParallel(BitBoard board, BoardFeatures features, PieceMask piece,
+                                                int maxRotations, int beamWidth) {
+        int[] columnTops = new int[board.getWidth()];
+        long holeColumns = measureColumns(board, features, columnTops);
+        int scanLimit = findScanLimit(board, features);
+
+        PieceMask[] rotations = new PieceMask[maxRotations + 1];
+        rotations[0] = piece;
+        for (int rotation = 1; rotation <= maxRotations; rotation++) {
+            rotations[rotation] = rotations[rotation - 1].rotateClockwise();
+        }
+
+        return ForkJoinPool.commonPool().invoke(new PlacementSearchTask(board, rotations, columnTops, holeColumns,
+                scanLimit, beamWidth, 0, rotations.length * board.getWidth()));
+    }
+
+    // Searches a range of (rotation, column) candidates, numbered rotation * boardWidth + x
+    private final class PlacementSearchTask extends RecursiveTask<MoveBeam> {
+        private final BitBoard board;
+        private final PieceMask[] rotations;
+        private final int[] columnTops;
+        private final long holeColumns;
+        private final int scanLimit;
+        private final int beamWidth;
+        private final int from;
+        private final int to;
+
+        private PlacementSearchTask(BitBoard board, PieceMask[] rotations, int[] columnTops, long holeColumns,
+                                    int scanLimit, int beamWidth, int from, int to) {
+            this.board = board;
+            this.rotations = rotations;
+            this.columnTops = columnTops;
+            this.holeColumns = holeColumns;
+            this.scanLimit = scanLimit;
+            this.beamWidth = beamWidth;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected MoveBeam compute() {
+            // Split in half until each task covers a few columns
+            if (to - from > PARALLEL_COLUMNS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                PlacementSearchTask left = new PlacementSearchTask(board, rotations, columnTops, holeColumns,
+                        scanLimit, beamWidth, from, middle);
+                PlacementSearchTask right = new PlacementSearchTask(board, rotations, columnTops, holeColumns,
+                        scanLimit, beamWidth, middle, to);
+                left.fork();
+                MoveBeam merged = right.compute();
+                merged.offerAll(left.join());
+                return merged;
+            }
+
+            // Score the columns on this worker's scratch copy of the board
+            ScoringScratch scratch = SCRATCH.get();
+            BitBoard workBoard = scratch.boardFor(board);
+            int boardWidth = board.getWidth();
+            MoveBeam beam = new MoveBeam(beamWidth);
+            for (int index = from; index < to; ) {
+                int rotation = index / boardWidth;
+                int rotationEnd = Math.min(to, (rotation + 1) * boardWidth);
+                PieceMask piece = rotations[rotation];
+                long[] savedRows = scratch.savedRows(Math.max(piece.getHeight(), piece.getWidth()));
+                searchColumns(workBoard, piece, rotation, index - rotation * boardWidth,
+                        rotationEnd - rotation * boardWidth, columnTops, holeColumns, scanLimit, savedRows, beam);
+                index = rotationEnd;
+            }
+            return beam;
+        }
+    }
+
+    // Offers the resting placements of one rotation for columns fromX (inclusive) to toX (exclusive)
+    private void searchColumns(BitBoard workBoard, PieceMask piece, int rotation, int fromX, int toX, int[] columnTops,
+                               long holeColumns, int scanLimit, long[] savedRows, MoveBeam beam) {
+        int boardHeight = workBoard.getHeight();
+        int boardWidth = workBoard.getWidth();
+        for (int x = fromX; x < toX; x++) {
+            int restingY = restingRow(piece, x, columnTops, boardWidth);
+            if (restingY == Integer.MIN_VALUE) {
+                continue;                                                       // The shape does not fit at this column
+            }
+            int lastY = (holeColumns & piece.columnSpan(x)) != 0 ? boardHeight - 1 : restingY;
+            for (int y = Math.max(restingY, scanLimit); y <= lastY; y++) {
+                if (isValidPlacement(workBoard, piece, x, y)) {
+                    beam.offer(scorePlacement(workBoard, piece, x, y, savedRows), rotation, x, y);
                 }
             }
         }
+    }
+
+    // Returns the highest row scanBoard reaches: it stops after the first empty row above the bottom row
+    private int findScanLimit(BitBoard board, BoardFeatures features) {
+        for (int y = board.getHeight() - 2; y >= 0; y--) {
+            if (features != null ? features.isRowEmpty(y) : board.isRowEmpty(y)) {
+                return y;
+            }
+        }
+        return 0;
+    }
+
+    // Records the top occupied row of each column and returns a mask of the columns with an empty cell under a block,
+    // copied from the features when they are known
+    private long measureColumns(BitBoard board, BoardFeatures features, int[] columnTops) {
+        if (features != null) {
+            for (int x = 0; x < columnTops.length; x++) {
+                columnTops[x] = features.getColumnTop(x);
+            }
+            return features.getHoleColumns();
+        }
+        Arrays.fill(columnTops, board.getHeight());
+        long covered = 0;
+        long holeColumns = 0;
+        for (int y = 0; y < board.getHeight(); y++) {
+            long row = board.getRow(y);
+            holeColumns |= covered & ~row;
+            long newlyCovered = row & ~covered;
+            while (newlyCovered != 0) {
+                columnTops[Long.numberOfTrailingZeros(newlyCovered)] = y;
+                newlyCovered &= newlyCovered - 1;
+            }
+            covered |= row;
+        }
+        return holeColumns;
+    }
+
+    // Returns the bottom row a shape dropped straight down at column x comes to rest on, or MIN_VALUE if it can't fit
+    private int restingRow(PieceMask piece, int x, int[] columnTops, int boardWidth) {
+        if (x + piece.getMinColumn() < 0 || x + piece.getMaxColumn() >= boardWidth) {
+            return Integer.MIN_VALUE;
+        }
+        int top = Integer.MAX_VALUE;
+        for (int j = 0; j < piece.getWidth(); j++) {
+            int columnBottom = piece.getColumnBottom(j);
+            if (columnBottom >= 0) {
+                top = Math.min(top, columnTops[x + j] - 1 - columnBottom);
+            }
+        }
+        return top == Integer.MAX_VALUE ? Integer.MIN_VALUE : top + piece.getHeight() - 1;
+    }
+
+    public boolean isValidPlacement(boolean[][] board, boolean[][] shape, int x, int y) {
+        return isValidPlacement(BitBoard.fromArray(board), PieceMask.of(shape), x, y);
+    }
+
+    // Checks a placement where (x, y) is the bottom-left corner of the shape
+    public boolean isValidPlacement(BitBoard board, PieceMask piece, int x, int y) {
+        int top = y - (piece.getHeight() - 1);
+
+        // Check if the shape is out of bounds or overlaps another block
+        if (board.collides(piece, x, top)) {
+            return false;
+        }
+
+        // Check if there's at least one block (or the floor) directly below the shape
+        for (int i = piece.getHeight() - 1; i >= 0; i--) {
+            long pieceRow = piece.rowAt(i, x);
+            if (pieceRow == 0) {
+                continue;
+            }
+            int boardY = top + i;
+            if (boardY + 1 >= board.getHeight() || (board.getRow(boardY + 1) & pieceRow) != 0) {
+                return true;
+            }
+        }
         // Return true only if the block has at least one supporting block underneath it
-        return hasSupport;
+        return false;
     }
 
     public boolean[][] rotateShape(boolean[][] shape) {
@@ -109,88 +576,80 @@ public class TetrisAI {
 
 
     public int scorePosition(boolean[][] board, boolean[][] shape, int x, int y) {
-        int boardHeight = board.length;
-        int boardWidth = board[0].length;
-        int shapeHeight = shape.length;
-        int shapeWidth = shape[0].length;
+        return scorePosition(BitBoard.fromArray(board), PieceMask.of(shape), x, y);
+    }
+
+    public int scorePosition(BitBoard board, PieceMask piece, int x, int y) {
+        ScoringScratch scratch = SCRATCH.get();
+        return scorePlacement(scratch.boardFor(board), piece, x, y, scratch.savedRows(piece.getHeight()));
+    }
+
+    // Scores a placement by applying the shape to the board and undoing it afterwards, touching only the shape's rows
+    private int scorePlacement(BitBoard board, PieceMask piece, int x, int y, long[] savedRows) {
+        int boardHeight = board.getHeight();
+        int boardWidth = board.getWidth();
+        int shapeHeight = piece.getHeight();
+        int top = y - (shapeHeight - 1);
 
         int clearedLines = 0;
         int supportingBlocks = 0;
         int emptySpacesBelow = 0;
 
-        // Create a temporary board to simulate the placement of the piece to check for cleared lines
-        boolean[][] tempBoard = new boolean[boardHeight][boardWidth];
-
-        // Copy the current board into the tempBoard
-        for (int i = 0; i < boardHeight; i++) {
-            System.arraycopy(board[i], 0, tempBoard[i], 0, boardWidth);
-        }
-
-        // Place the shape on the temporary board
-        for (int i = shapeHeight - 1; i >= 0; i--) {
-            for (int j = 0; j < shapeWidth; j++) {
-                if (shape[i][j]) {
-                    int boardX = x + j;
-                    int boardY = y - (shapeHeight - 1 - i);
-                    // Place the shape on the temp board
-                    if (boardY >= 0 && boardY < boardHeight && boardX >= 0 && boardX < boardWidth) {
-                        tempBoard[boardY][boardX] = true;
-                    }
-                }
+        // Check that no blocks are above the shape that will block future shapes above.
+        long shapeColumns = piece.columnSpan(x);
+        for (int j = y - shapeHeight; j >= 0; j--) {
+            if ((board.getRow(j) & shapeColumns) != 0) {                      // The shape has not been placed yet, so it isn't counted
+                return 0;                                                       // Return a 0 score if there are blocks above.
             }
         }
 
-        // Check that no blocks are above the shape that will block future shapes above.
-        for (int i = 0; i < shapeWidth; i++) {
-            int boardX = x + i;
-            for (int j = y - shapeHeight; j >= 0; j--) {
-                if (board[j][boardX]) {                                         // Use the original board so shape piece aren't counted
-                    return 0;                                                   // Return a 0 score if there are blocks above.
-                }
+        // Remember the rows the shape touches, then place the shape on the board to check for cleared lines
+        for (int i = 0; i < shapeHeight; i++) {
+            if (piece.rowAt(i, x) != 0) {
+                savedRows[i] = board.getRow(top + i);
             }
         }
+        board.place(piece, x, top);
 
-        // Check the position for supporting pieces below or empty spaces below
+        // Check the position for supporting pieces below or empty spaces below, one shape row at a time
+        long rightWall = 1L << (boardWidth - 1);
         for (int i = shapeHeight - 1; i >= 0; i--) {
-            for (int j = 0; j < shapeWidth; j++) {
-                if (shape[i][j]) {
-                    int boardX = x + j;
-                    int boardY = y - (shapeHeight - 1 - i);
-
-                    // Check for supporting blocks, walls, or floor (directly adjacent or below)
-                    if (boardY + 1 == boardHeight || board[boardY + 1][boardX]) {
-                        supportingBlocks++;                                                         // Floor or block below
-                    } else if (boardY + 1 < boardHeight && !tempBoard[boardY + 1][boardX]) {
-                        emptySpacesBelow++;                                                         // Count empty spaces below the shape to deduct points
-                    }
-
-                    // Left (wall or block)
-                    if (boardX - 1 < 0 || board[boardY][boardX - 1]) {
-                        supportingBlocks++;                                                         // Wall or block to the left
-                    }
+            long pieceRow = piece.rowAt(i, x);
+            if (pieceRow == 0) {
+                continue;
+            }
+            int boardY = top + i;
 
-                    // Right (wall or block)
-                    if (boardX + 1 >= boardWidth || board[boardY][boardX + 1]) {
-                        supportingBlocks++;                                                         // Wall or block to the right
-                    }
-                }
+            // Check for supporting blocks or floor below, otherwise count empty spaces below to deduct points
+            if (boardY + 1 == boardHeight) {
+                supportingBlocks += Long.bitCount(pieceRow);
+            } else {
+                boolean belowIsShapeRow = i + 1 < shapeHeight && piece.rowAt(i + 1, x) != 0;
+                long originalBelow = belowIsShapeRow ? savedRows[i + 1] : board.getRow(boardY + 1);
+                supportingBlocks += Long.bitCount(pieceRow & originalBelow);
+                emptySpacesBelow += Long.bitCount(pieceRow & ~board.getRow(boardY + 1));
             }
+
+            // Left and right (wall or block), shifting the original row so neighbours line up with the shape
+            long boardRow = savedRows[i];
+            supportingBlocks += Long.bitCount(pieceRow & ((boardRow << 1) | 1L));
+            supportingBlocks += Long.bitCount(pieceRow & ((boardRow >>> 1) | rightWall));
         }
 
-        // Check for cleared lines in the tempBoard
+        // Check for cleared lines with the shape in place
         for (int row = 0; row < boardHeight; row++) {
-            boolean rowIsFull = true;
-            for (int col = 0; col < boardWidth; col++) {
-                if (!tempBoard[row][col]) {
-                    rowIsFull = false;
-                    break;
-                }
-            }
-            if (rowIsFull) {
+            if (board.isRowFull(row)) {
                 clearedLines++;
             }
         }
 
+        // Undo the placement by restoring the touched rows
+        for (int i = 0; i < shapeHeight; i++) {
+            if (piece.rowAt(i, x) != 0) {
+                board.setRow(top + i, savedRows[i]);
+            }
+        }
+
         // Calculate the score and return it
         return (clearedLines * 300) + (supportingBlocks * 50) - (((boardHeight - y) * 10) + (emptySpacesBelow * 20));
     }
@@ -1,7 +1,9 @@
 package com.group16.tetris.services;
 
+import com.group16.tetris.models.BitBoard;
 import com.group16.tetris.models.BlockModel;
 import com.group16.tetris.models.OpMove;
+import com.group16.tetris.models.PieceRotation;
 import com.group16.tetris.models.PureGame;
 import com.google.gson.Gson;
 
@@ -12,6 +14,9 @@ public class TetrisClient {
     private static final String DEFAULT_SERVER_HOST = "localhost";
     private static final int DEFAULT_SERVER_PORT = 3000;
 
+    // Gson is thread-safe, so one instance serves every request
+    private static final Gson GSON = new Gson();
+
     private final String serverHost; // had to refactor this to pass in a mocked socket for testing
     private final int serverPort;
 
@@ -27,6 +32,18 @@ public class TetrisClient {
 
     public PureGame createPureGame(int fieldWidth, int fieldHeight, boolean[][] boardToUse,
                                    BlockModel currentBlockToUse, BlockModel nextBlock) {
+        return createPureGame(fieldWidth, fieldHeight, boardToUse, currentBlockToUse.getBlockShape(),
+                nextBlock.getBlockShape());
+    }
+
+    public PureGame createPureGame(int fieldWidth, int fieldHeight, BitBoard boardToUse,
+                                   PieceRotation currentPiece, PieceRotation nextPiece) {
+        return createPureGame(fieldWidth, fieldHeight, boardToUse.toArray(), currentPiece.getShape(),
+                nextPiece.getShape());
+    }
+
+    private PureGame createPureGame(int fieldWidth, int fieldHeight, boolean[][] boardToUse,
+                                    boolean[][] currentShape, boolean[][] nextShape) {
         PureGame game = new PureGame();
 
         game.setWidth(fieldWidth);
@@ -42,14 +59,19 @@ public class TetrisClient {
         game.setCells(cells);
 
         // Set currentShape
-        game.setCurrentShape(convertBlockTo2DArray(currentBlockToUse.getBlockShape()));
+        game.setCurrentShape(convertBlockTo2DArray(currentShape));
 
         // Set nextShape
-        game.setNextShape(convertBlockTo2DArray(nextBlock.getBlockShape()));
+        game.setNextShape(convertBlockTo2DArray(nextShape));
 
         return game;
     }
 
+    public PureGame createPureGame(int fieldWidth, int fieldHeight, BitBoard boardToUse,
+                                   BlockModel currentBlockToUse, BlockModel nextBlock) {
+        return createPureGame(fieldWidth, fieldHeight, boardToUse.toArray(), currentBlockToUse, nextBlock);
+    }
+
     private int[][] convertBlockTo2DArray(boolean[][] blockShape) {
         int rows = blockShape.length;
         int cols = blockShape[0].length;
@@ -80,8 +102,7 @@ public class TetrisClient {
              BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()))) {
 
             // Convert PureGame object to JSON
-            Gson gson = new Gson();
-            String jsonGameState = gson.toJson(game);
+            String jsonGameState = GSON.toJson(game);
 
             // Send the game state to the server
             out.println(jsonGameState);
@@ -90,7 +111,7 @@ public class TetrisClient {
             String response = in.readLine();
 
             // Convert the JSON response to an OpMove object
-            return gson.fromJson(response, OpMove.class);
+            return GSON.fromJson(response, OpMove.class);
 
         } catch (IOException e) {
             e.printStackTrace();
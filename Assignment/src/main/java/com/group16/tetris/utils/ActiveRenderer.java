@@ -0,0 +1,102 @@
+package com.group16.tetris.utils;
+
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
+import java.awt.DisplayMode;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.ImageCapabilities;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+// Canvas the game loop draws whole frames to through a BufferStrategy, instead of asking Swing to repaint and waiting
+// for it to coalesce the requests. Page flipping is used where the display supports it, otherwise the back buffer is
+// copied to the screen. With vsync pacing, each frame is flushed to the display and frames are timed to the display's
+// refresh rate, as Java has no portable way to wait for the vertical blank itself
+public class ActiveRenderer extends Canvas {
+
+    // Draws one frame onto the back buffer
+    public interface FramePainter {
+        void paintFrame(Graphics g);
+    }
+
+    private static final int BUFFERS = 2;
+
+    private final boolean vsync;
+    private final Object strategyLock = new Object();  // The strategy is created on the loop thread, disposed on Swing's
+    private BufferStrategy strategy;
+
+    public ActiveRenderer(boolean vsync) {
+        this.vsync = vsync;
+        setFocusable(false);                                                    // Keys stay with the game panel
+        setIgnoreRepaint(true);                                                 // Frames are only drawn by renderFrame
+    }
+
+    // Draws and shows one frame, and returns false if the canvas isn't on screen to draw to
+    public boolean renderFrame(FramePainter painter) {
+        synchronized (strategyLock) {
+            if (!isDisplayable() || getWidth() <= 0 || getHeight() <= 0) {
+                return false;
+            }
+            if (strategy == null) {
+                strategy = createStrategy();
+            }
+
+            // Redraw while the buffers' contents are being restored or were lost, e.g. after the display changed
+            do {
+                do {
+                    Graphics g = strategy.getDrawGraphics();
+                    try {
+                        painter.paintFrame(g);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+        }
+        if (vsync) {
+            Toolkit.getDefaultToolkit().sync();
+        }
+        return true;
+    }
+
+    public boolean isVsync() {
+        return vsync;
+    }
+
+    // Frame length matching the refresh rate of the display the canvas is on, or the fallback if it isn't known
+    public long refreshIntervalMillis(long fallbackMillis) {
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        if (configuration == null) {
+            return fallbackMillis;
+        }
+        int refreshRate = configuration.getDevice().getDisplayMode().getRefreshRate();
+        if (refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN || refreshRate <= 0) {
+            return fallbackMillis;
+        }
+        return Math.max(1, Math.round(1000.0 / refreshRate));
+    }
+
+    private BufferStrategy createStrategy() {
+        try {
+            createBufferStrategy(BUFFERS, new BufferCapabilities(new ImageCapabilities(true),
+                    new ImageCapabilities(true), BufferCapabilities.FlipContents.UNDEFINED));
+        } catch (AWTException e) {
+            createBufferStrategy(BUFFERS);                                      // Page flipping isn't supported here
+        }
+        return getBufferStrategy();
+    }
+
+    @Override
+    public void removeNotify() {
+        synchronized (strategyLock) {
+            if (strategy != null) {
+                strategy.dispose();
+                strategy = null;
+            }
+            super.removeNotify();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.group16.tetris.utils;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Embossed block images, rendered once per colour and size and then copied onto the screen. Each tile is one pixel
+// larger than the block, as the block's grey outline is drawn on its far edges as well. Used by the Swing thread and,
+// when rendering actively, the game loop thread
+public class BlockTiles {
+
+    private static final Map<Long, BufferedImage> TILES = new ConcurrentHashMap<>();
+
+    private BlockTiles() {
+    }
+
+    // Draws a block of the given colour with its top-left corner at (x, y)
+    public static void drawBlock(Graphics g, Color colour, int x, int y, int size) {
+        g.drawImage(getTile(colour, size), x, y, null);
+    }
+
+    public static BufferedImage getTile(Color colour, int size) {
+        return TILES.computeIfAbsent(((long) size << 32) | (colour.getRGB() & 0xFFFFFFFFL),
+                key -> renderTile(colour, size));
+    }
+
+    private static BufferedImage renderTile(Color colour, int size) {
+        BufferedImage tile = new BufferedImage(size + 1, size + 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = tile.getGraphics();
+
+        // Draw the main block color
+        g.setColor(colour);
+        g.fillRect(0, 0, size, size);
+
+        // Draw the highlight effect
+        g.setColor(colour.brighter());
+        g.drawLine(0, 0, size - 1, 0); // Top edge
+        g.drawLine(0, 0, 0, size - 1); // Left edge
+
+        // Draw the shadow effect
+        g.setColor(colour.darker());
+        g.drawLine(size - 1, 0, size - 1, size - 1); // Right edge
+        g.drawLine(0, size - 1, size - 1, size - 1); // Bottom edge
+
+        // Draw internal grid lines for each block
+        g.setColor(Color.GRAY);
+        g.drawRect(0, 0, size, size);
+        g.dispose();
+        return tile;
+    }
+}
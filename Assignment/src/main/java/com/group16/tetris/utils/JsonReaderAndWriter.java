@@ -12,12 +12,18 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.io.FileWriter;
 import java.io.FileReader;
 
 public class JsonReaderAndWriter {
 
+    private static final Gson GSON = new Gson();  // Gson is thread-safe, so one instance serves every read and write
     private ArrayList<PlayerModel> players;  // List of players read from JSON
     public static String scoresRelativePath = "./src/main/resources/data/high_scores.json";
     public static String configurationRelativePath = "./src/main/resources/config/configuration_settings.json";
@@ -30,8 +36,7 @@ public class JsonReaderAndWriter {
     public <T> T readFromFile(String relativePath, Type typeOfT) throws JsonFileException {
         String absolutePath = Paths.get(relativePath).toAbsolutePath().normalize().toString();
         try (FileReader fileReader = new FileReader(absolutePath)) {
-            Gson gson = new Gson();
-            T data = gson.fromJson(fileReader, typeOfT);
+            T data = GSON.fromJson(fileReader, typeOfT);
             return data;
         } catch (JsonSyntaxException e) {
             throw new JsonFileException("Malformed JSON content at path: " + relativePath, e);
@@ -62,6 +67,7 @@ public class JsonReaderAndWriter {
                     fileSettings.getPlayer1Type(),
                     fileSettings.getPlayer2Type()
             );
+            settings.setActiveRendering(fileSettings.isActiveRenderingEnabled());
         } else {
             settings.resetToDefaults();
         }
@@ -69,17 +75,46 @@ public class JsonReaderAndWriter {
 
     // Writes data to a JSON file
     public <T> void writeToFile(String relativePath, T data) {
-        String absolutePath = Paths.get(relativePath).toAbsolutePath().normalize().toString();
-        try (FileWriter fileWriter = new FileWriter(absolutePath)) {
-            Gson gson = new Gson();
-            gson.toJson(data, fileWriter);
+        writeJsonToFile(relativePath, toJson(data));
+    }
+
+    // Writes JSON text to a file through a temporary file in the same directory, which is then moved over the file,
+    // so a crash mid-write leaves the old file whole rather than truncated
+    public static void writeJsonToFile(String relativePath, String json) {
+        Path path = Paths.get(relativePath).toAbsolutePath().normalize();
+        Path temporaryFile = null;
+        try {
+            temporaryFile = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            Files.writeString(temporaryFile, json, StandardCharsets.UTF_8);
+            try {
+                Files.move(temporaryFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING);
+            }
         } catch (IOException e) {
             throw new JsonFileException("Failed to write to JSON file at path: " + relativePath, e);
+        } finally {
+            if (temporaryFile != null) {
+                try {
+                    Files.deleteIfExists(temporaryFile);                        // Only still there if the move failed
+                } catch (IOException e) {
+                    // Leaves a stray temporary file, but the JSON file itself is untouched
+                }
+            }
         }
     }
 
+    public String toJson(Object data) {
+        return GSON.toJson(data);
+    }
+
     // Writes high scores to the JSON file
     public void writeScoresJson(HighScoresModel manager) {
+        writeJsonToFile(scoresRelativePath, scoresToJson(manager));
+    }
+
+    // Returns the top ten high scores as the JSON written to the high scores file
+    public String scoresToJson(HighScoresModel manager) {
         if (manager == null) {
             throw new IllegalArgumentException("HighScoresManager cannot be null");
         }
@@ -89,17 +124,21 @@ public class JsonReaderAndWriter {
         for (Map.Entry<String, Integer> entry : topScores) {
             playerList.add(new PlayerModel(entry.getKey(), entry.getValue(), manager.getConfig(entry.getKey())));
         }
-
-        writeToFile(scoresRelativePath, playerList);
+        return toJson(playerList);
     }
 
     // Writes configuration settings to the JSON file
     public void writeConfigurationFile() {
+        writeJsonToFile(configurationRelativePath, configurationToJson());
+    }
+
+    // Returns the current configuration settings as the JSON written to the configuration file
+    public String configurationToJson() {
         ConfigurationModel settings = ConfigurationModel.getInstance();
         if (settings == null) {
             throw new IllegalArgumentException("ConfigurationManager cannot be null");
         }
-        writeToFile(configurationRelativePath, settings);
+        return toJson(settings);
     }
 
     // Clears content of the specified file
@@ -25,7 +25,7 @@ public class ConfigurationView extends View implements UI {
     private final ConfigurationController configurationController;
 
     private JSlider fieldWidthSlider, fieldHeightSlider, gameLevelSlider;
-    private JCheckBox musicCheckbox, soundEffectsCheckbox, extendModeCheckbox;
+    private JCheckBox musicCheckbox, soundEffectsCheckbox, extendModeCheckbox, activeRenderingCheckbox;
     private JLabel fieldWidthVal, fieldHeightVal, gameLevelVal;
 
     private ButtonGroup player1TypeGroup, player2TypeGroup;
@@ -41,10 +41,12 @@ public class ConfigurationView extends View implements UI {
         player1.add(createRadioButtons(1, "Human", PlayerType.HUMAN));
         player1.add(createRadioButtons(1, "AI", PlayerType.AI));
         player1.add(createRadioButtons(1, "External", PlayerType.EXTERNAL));
+        player1.add(createRadioButtons(1, "AI (Lookahead)", PlayerType.AI_LOOKAHEAD));
 
         player2.add(createRadioButtons(2, "Human", PlayerType.HUMAN));
         player2.add(createRadioButtons(2, "AI", PlayerType.AI));
         player2.add(createRadioButtons(2, "External", PlayerType.EXTERNAL));
+        player2.add(createRadioButtons(2, "AI (Lookahead)", PlayerType.AI_LOOKAHEAD));
 
         initialiseComponents();  // Set up UI components
     }
@@ -82,7 +84,7 @@ public class ConfigurationView extends View implements UI {
         gbc.gridx = 0;
         gbc.gridy = 0;
         gbc.anchor = GridBagConstraints.CENTER;
-        gbc.insets = new Insets(7, 0, 35, 0);
+        gbc.insets = new Insets(7, 0, 28, 0);  // Tight enough to fit every row in the 700 pixel high window
 
         fieldWidthSlider = createSlider(SLIDER_MIN_WIDTH, SLIDER_MAX_WIDTH, configurationController.getSettings().getFieldWidth());
         fieldHeightSlider = createSlider(SLIDER_MIN_HEIGHT, SLIDER_MAX_HEIGHT, configurationController.getSettings().getFieldHeight());
@@ -91,6 +93,7 @@ public class ConfigurationView extends View implements UI {
         musicCheckbox = createCheckbox(configurationController.getSettings().isMusicEnabled(), configurationController.getSettings()::setMusic);
         soundEffectsCheckbox = createCheckbox(configurationController.getSettings().isSoundEffectsEnabled(), configurationController.getSettings()::setSoundEffects);
         extendModeCheckbox = createCheckbox(configurationController.getSettings().isExtendModeEnabled(), configurationController.getSettings()::setExtendMode);
+        activeRenderingCheckbox = createCheckbox(configurationController.getSettings().isActiveRenderingEnabled(), configurationController.getSettings()::setActiveRendering);
 
         fieldWidthVal = new JLabel(String.valueOf(configurationController.getSettings().getFieldWidth()));
         fieldHeightVal = new JLabel(String.valueOf(configurationController.getSettings().getFieldHeight()));
@@ -104,6 +107,7 @@ public class ConfigurationView extends View implements UI {
         addCheckboxWithLabel(configurationItems, gbc, "Music (On | Off):", musicCheckbox);
         addCheckboxWithLabel(configurationItems, gbc, "Sound Effects (On | Off):", soundEffectsCheckbox);
         addCheckboxWithLabel(configurationItems, gbc, "Extend Mode (On | Off):", extendModeCheckbox);
+        addCheckboxWithLabel(configurationItems, gbc, "Active Rendering (On | Off):", activeRenderingCheckbox);
 
         addRadioButtonsWithLabel(configurationItems, gbc, "Player One Type:", player1);
         addRadioButtonsWithLabel(configurationItems, gbc, "Player Two Type:", player2);
@@ -240,6 +244,7 @@ public class ConfigurationView extends View implements UI {
         musicCheckbox.setSelected(configurationController.getSettings().isMusicEnabled());
         soundEffectsCheckbox.setSelected(configurationController.getSettings().isSoundEffectsEnabled());
         extendModeCheckbox.setSelected(configurationController.getSettings().isExtendModeEnabled());
+        activeRenderingCheckbox.setSelected(configurationController.getSettings().isActiveRenderingEnabled());
 
         player1.get(configurationController.getSettings().getPlayer1Type().getValue() - 1).setSelected(true);
         player2.get(configurationController.getSettings().getPlayer2Type().getValue() - 1).setSelected(true);
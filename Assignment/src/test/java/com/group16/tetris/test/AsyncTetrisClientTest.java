@@ -0,0 +1,167 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.models.BlockModel;
+import com.group16.tetris.models.OpMove;
+import com.group16.tetris.models.PureGame;
+import com.group16.tetris.services.AsyncTetrisClient;
+import com.group16.tetris.services.BinaryGameCodec;
+import com.group16.tetris.services.TetrisClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncTetrisClientTest {
+
+    private ServerSocket serverSocket;
+    private AsyncTetrisClient asyncTetrisClient;
+    private PureGame game;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverSocket = new ServerSocket(0);
+        asyncTetrisClient = new AsyncTetrisClient("localhost", serverSocket.getLocalPort());
+        game = new TetrisClient().createPureGame(10, 20, new boolean[20][10], new BlockModel(), new BlockModel());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        asyncTetrisClient.close();
+        serverSocket.close();
+    }
+
+    @Test
+    void testRequestsFromBothPlayersComplete() throws Exception {
+        // Replies to one request per connection, like the bundled TetrisServer
+        startServer(true);
+
+        CompletableFuture<OpMove> player1 = asyncTetrisClient.requestMove(game);
+        CompletableFuture<OpMove> player2 = asyncTetrisClient.requestMove(game);
+
+        assertEquals(new OpMove(3, 1), player1.get(5, TimeUnit.SECONDS));
+        assertEquals(new OpMove(3, 1), player2.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSlowServerFallsBackToDefaultMove() throws Exception {
+        // Accepts connections but never replies
+        startServer(false);
+
+        OpMove move = asyncTetrisClient.requestMove(game, 100).get(5, TimeUnit.SECONDS);
+
+        assertEquals(new OpMove(-1, -1), move);
+    }
+
+    @Test
+    void testCancellingClosesConnectionBeforeDeadline() throws Exception {
+        // Reads the request, then waits for the client to close the connection
+        CountDownLatch connected = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        Thread server = new Thread(() -> {
+            try (Socket socket = serverSocket.accept()) {
+                InputStream in = socket.getInputStream();
+                connected.countDown();
+                while (in.read() >= 0) {
+                    // Discard the request
+                }
+                closed.countDown();
+            } catch (IOException e) {
+                closed.countDown();
+            }
+        });
+        server.setDaemon(true);
+        server.start();
+
+        CompletableFuture<OpMove> move = asyncTetrisClient.requestMove(game, 10_000);
+        assertTrue(connected.await(5, TimeUnit.SECONDS));
+        move.cancel(true);
+
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testUnavailableServerFallsBackToDefaultMove() throws Exception {
+        serverSocket.close();
+
+        OpMove move = asyncTetrisClient.requestMove(game).get(5, TimeUnit.SECONDS);
+
+        assertEquals(new OpMove(-1, -1), move);
+    }
+
+    @Test
+    void testBinaryFormatAfterHandshake() throws Exception {
+        // Echoes the handshake, then answers binary frames with a binary move
+        Thread server = new Thread(() -> {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    InputStream in = socket.getInputStream();
+                    OutputStream out = socket.getOutputStream();
+                    int first = in.read();
+                    if (first == '{') {
+                        new BufferedReader(new InputStreamReader(in)).readLine();
+                        out.write((BinaryGameCodec.HANDSHAKE + "\n").getBytes());
+                    } else {
+                        byte[] header = new byte[BinaryGameCodec.HEADER_SIZE];
+                        header[0] = (byte) first;
+                        in.readNBytes(header, 1, header.length - 1);
+                        int length = BinaryGameCodec.frameLength(header, header.length);
+                        byte[] frame = Arrays.copyOf(header, length);
+                        in.readNBytes(frame, header.length, length - header.length);
+                        int width = BinaryGameCodec.decodeGame(frame).getWidth();
+                        out.write(BinaryGameCodec.encodeMove(new OpMove(width - 1, 2)));
+                    }
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+        server.setDaemon(true);
+        server.start();
+
+        assertEquals(AsyncTetrisClient.WireFormat.BINARY,
+                asyncTetrisClient.negotiateBinaryFormat().get(5, TimeUnit.SECONDS));
+        assertEquals(new OpMove(9, 2), asyncTetrisClient.requestMove(game).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testJsonOnlyServerKeepsJsonFormat() throws Exception {
+        startServer(true);
+
+        assertEquals(AsyncTetrisClient.WireFormat.JSON,
+                asyncTetrisClient.negotiateBinaryFormat().get(5, TimeUnit.SECONDS));
+        assertEquals(new OpMove(3, 1), asyncTetrisClient.requestMove(game).get(5, TimeUnit.SECONDS));
+    }
+
+    private void startServer(boolean reply) {
+        Thread server = new Thread(() -> {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                    if (in.readLine() != null && reply) {
+                        new PrintWriter(socket.getOutputStream(), true).println("{\"opX\":3,\"opRotate\":1}");
+                        socket.close();
+                    }
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+        server.setDaemon(true);
+        server.start();
+    }
+}
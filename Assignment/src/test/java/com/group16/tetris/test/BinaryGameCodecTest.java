@@ -0,0 +1,54 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.models.BlockModel;
+import com.group16.tetris.models.OpMove;
+import com.group16.tetris.models.PureGame;
+import com.group16.tetris.services.BinaryGameCodec;
+import com.group16.tetris.services.TetrisClient;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryGameCodecTest {
+
+    @Test
+    void testGameRoundTrip() {
+        boolean[][] board = new boolean[20][10];
+        board[19][0] = true;
+        board[19][9] = true;
+        board[18][4] = true;
+        BlockModel currentBlock = new BlockModel();
+        currentBlock.setBlockShape(BlockModel.SHAPES[4][1], BlockModel.ShapeType.L_SHAPE, 1);
+        PureGame game = new TetrisClient().createPureGame(10, 20, board, currentBlock, new BlockModel());
+
+        byte[] frame = BinaryGameCodec.encodeGame(game);
+        PureGame decoded = BinaryGameCodec.decodeGame(frame);
+
+        assertEquals(game.getWidth(), decoded.getWidth());
+        assertEquals(game.getHeight(), decoded.getHeight());
+        assertArrayEquals(game.getCells(), decoded.getCells());
+        assertArrayEquals(game.getCurrentShape(), decoded.getCurrentShape());
+        assertArrayEquals(game.getNextShape(), decoded.getNextShape());
+
+        // Tens of bytes instead of hundreds of characters of JSON
+        assertTrue(frame.length < 64);
+        assertTrue(new Gson().toJson(game).length() > 400);
+    }
+
+    @Test
+    void testMoveRoundTrip() {
+        byte[] frame = BinaryGameCodec.encodeMove(new OpMove(7, 3));
+
+        assertEquals(frame.length, BinaryGameCodec.frameLength(frame, frame.length));
+        assertEquals(-1, BinaryGameCodec.frameLength(frame, 3));
+        assertEquals(new OpMove(7, 3), BinaryGameCodec.decodeMove(frame));
+    }
+
+    @Test
+    void testRejectsJson() {
+        byte[] json = "{\"opX\":1,\"opRotate\":2}".getBytes();
+
+        assertThrows(IllegalArgumentException.class, () -> BinaryGameCodec.decodeMove(json));
+    }
+}
@@ -0,0 +1,111 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.models.BitBoard;
+import com.group16.tetris.models.BlockModel;
+import com.group16.tetris.models.PieceMask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitBoardTest {
+
+    private BitBoard bitBoard;
+
+    @BeforeEach
+    void setUp() {
+        bitBoard = new BitBoard(10, 20);
+    }
+
+    @Test
+    void testFromArrayAndToArray() {
+        boolean[][] cells = new boolean[20][10];
+        cells[19][0] = true;
+        cells[18][9] = true;
+
+        BitBoard board = BitBoard.fromArray(cells);
+
+        assertTrue(board.isOccupied(0, 19));
+        assertTrue(board.isOccupied(9, 18));
+        assertFalse(board.isOccupied(1, 19));
+        assertArrayEquals(cells, board.toArray());
+    }
+
+    @Test
+    void testCollides() {
+        // Square shape placed in the bottom-left corner
+        PieceMask square = PieceMask.of(BlockModel.ShapeType.SQUARE, 0);
+        assertFalse(bitBoard.collides(square, 0, 18));
+
+        // Walls and floor
+        assertTrue(bitBoard.collides(square, -1, 18));
+        assertTrue(bitBoard.collides(square, 9, 18));
+        assertTrue(bitBoard.collides(square, 0, 19));
+
+        // Another block in the way
+        bitBoard.setOccupied(1, 19);
+        assertTrue(bitBoard.collides(square, 0, 18));
+        assertFalse(bitBoard.collides(square, 2, 18));
+    }
+
+    @Test
+    void testCollidesIgnoresEmptyCellsOfShape() {
+        // Z shape only fills the right cell of its bottom row, so the bottom-left cell can be occupied
+        PieceMask zShape = PieceMask.of(BlockModel.ShapeType.Z_SHAPE, 0);
+        bitBoard.setOccupied(0, 19);
+        assertFalse(bitBoard.collides(zShape, 0, 18));
+        bitBoard.setOccupied(1, 19);
+        assertTrue(bitBoard.collides(zShape, 0, 18));
+    }
+
+    @Test
+    void testPlaceAndRemoveFullRow() {
+        PieceMask straight = PieceMask.of(BlockModel.ShapeType.STRAIGHT, 0);
+        bitBoard.place(straight, 0, 19);
+        bitBoard.place(straight, 4, 19);
+        bitBoard.setOccupied(8, 19);
+        bitBoard.setOccupied(9, 19);
+        bitBoard.setOccupied(3, 18);
+
+        assertTrue(bitBoard.isRowFull(19));
+        assertFalse(bitBoard.isRowFull(18));
+
+        // Removing the full row shifts the row above it down
+        bitBoard.removeRow(19);
+        assertTrue(bitBoard.isOccupied(3, 19));
+        assertFalse(bitBoard.isRowFull(19));
+        assertTrue(bitBoard.isRowEmpty(18));
+    }
+
+    @Test
+    void testClearFullRowsKeepsOrderOfRemainingRows() {
+        long full = bitBoard.getFullRowMask();
+        bitBoard.setRow(19, full);
+        bitBoard.setOccupied(2, 18);
+        bitBoard.setRow(17, full);
+        bitBoard.setOccupied(5, 16);
+
+        assertEquals(2, bitBoard.clearFullRows());
+
+        // The rows between and above the cleared rows drop by the number of full rows below them
+        assertTrue(bitBoard.isOccupied(2, 19));
+        assertTrue(bitBoard.isOccupied(5, 18));
+        assertTrue(bitBoard.isRowEmpty(17));
+        assertTrue(bitBoard.isRowEmpty(0));
+    }
+
+    @Test
+    void testRemoveRows() {
+        bitBoard.setOccupied(0, 19);
+        bitBoard.setOccupied(1, 18);
+        bitBoard.setOccupied(2, 17);
+        bitBoard.setOccupied(3, 0);
+
+        bitBoard.removeRows(new int[]{17, 19}, 2);
+
+        assertTrue(bitBoard.isOccupied(1, 19));
+        assertTrue(bitBoard.isOccupied(3, 2));
+        assertTrue(bitBoard.isRowEmpty(18));
+        assertTrue(bitBoard.isRowEmpty(0));
+    }
+}
@@ -0,0 +1,114 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.models.BitBoard;
+import com.group16.tetris.models.BoardFeatures;
+import com.group16.tetris.models.GameEngine;
+import com.group16.tetris.models.PieceSequence;
+import com.group16.tetris.services.TetrisAI;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardFeaturesTest {
+
+    private GameEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        PieceSequence pieces = new PieceSequence(2805);
+        engine = new GameEngine(10, 20, 1, pieces);
+        engine.newGame(10, 20, 1, pieces);
+    }
+
+    @Test
+    void testFeaturesOfSetBoard() {
+        boolean[][] board = new boolean[20][10];
+        board[19][0] = true;
+        board[17][0] = true;                                    // Covers a hole at row 18
+        board[19][1] = true;
+        engine.setBoard(board);
+
+        BoardFeatures features = engine.getFeatures();
+        assertEquals(3, features.getColumnHeight(0));
+        assertEquals(17, features.getColumnTop(0));
+        assertEquals(1, features.getColumnHeight(1));
+        assertEquals(20, features.getColumnTop(2));             // Empty column
+        assertEquals(2, features.getRowFill(19));
+        assertTrue(features.isRowEmpty(18));
+        assertEquals(1, features.getHoleCount());
+        assertEquals(0b1, features.getHoleColumns());
+    }
+
+    @Test
+    void testFeaturesFollowClearedRows() {
+        boolean[][] board = new boolean[20][10];
+        for (int j = 0; j < 10; j++) {
+            board[19][j] = true;
+        }
+        board[18][3] = true;
+        board[16][3] = true;                                    // Hole at row 17 stays after the clear
+        board[18][5] = true;
+        engine.setBoard(board);
+
+        assertEquals(1, engine.checkCompletedRows());
+
+        assertFeaturesMatch(engine.getBoard(), engine.getFeatures());
+        assertEquals(3, engine.getFeatures().getColumnHeight(3));
+        assertEquals(1, engine.getFeatures().getColumnHeight(5));
+        assertEquals(0, engine.getFeatures().getColumnHeight(0));
+        assertEquals(1, engine.getFeatures().getHoleCount());
+    }
+
+    @Test
+    void testFeaturesStayInStepDuringAGame() {
+        TetrisAI ai = new TetrisAI();
+        int[] settled = new int[1];
+        engine.setListener(new GameEngine.Listener() {
+            @Override
+            public void onBlockSpawned() {
+                // Searching with the features finds the same move as measuring the board
+                int[] move = ai.findBestMove(engine.getBoard(), engine.getFeatures(), engine.getCurrentPiece());
+                assertArrayEquals(ai.findBestMove(engine.getBoard(), engine.getCurrentPiece()), move);
+                engine.setTarget(move[2], move[1]);
+            }
+
+            @Override
+            public void onBlockSettled() {
+                settled[0]++;
+            }
+        });
+        engine.spawnBlock();
+
+        int checked = 0;
+        while (settled[0] < 200 && !engine.isGameEnded()) {
+            engine.tick(true);
+            if (settled[0] > checked) {
+                checked = settled[0];
+                assertFeaturesMatch(engine.getBoard(), engine.getFeatures());
+            }
+        }
+        assertTrue(engine.getDeletedRows() > 0);
+    }
+
+    // Measures the board cell by cell and compares it with the features
+    private void assertFeaturesMatch(BitBoard board, BoardFeatures features) {
+        int holes = 0;
+        for (int x = 0; x < board.getWidth(); x++) {
+            int top = board.getHeight();
+            int filled = 0;
+            for (int y = board.getHeight() - 1; y >= 0; y--) {
+                if (board.isOccupied(x, y)) {
+                    top = y;
+                    filled++;
+                }
+            }
+            holes += (board.getHeight() - top) - filled;
+            assertEquals(top, features.getColumnTop(x), "column " + x);
+        }
+        for (int y = 0; y < board.getHeight(); y++) {
+            assertEquals(Long.bitCount(board.getRow(y)), features.getRowFill(y), "row " + y);
+        }
+        assertEquals(holes, features.getHoleCount());
+    }
+}
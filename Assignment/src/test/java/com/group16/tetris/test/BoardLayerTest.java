@@ -0,0 +1,88 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.models.BlockModel;
+import com.group16.tetris.models.BoardLayer;
+import com.group16.tetris.models.GameEngine;
+import com.group16.tetris.models.PieceRotation;
+import com.group16.tetris.models.PieceSequence;
+import com.group16.tetris.utils.BlockTiles;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardLayerTest {
+
+    private static final int BLOCK_SIZE = 20;
+
+    private GameEngine engine;
+    private BoardLayer layer;
+
+    @BeforeEach
+    void setUp() {
+        PieceSequence pieces = new PieceSequence(2805);
+        engine = new GameEngine(10, 20, 1, pieces);
+        layer = new BoardLayer(10, 20, BLOCK_SIZE, Color.WHITE);
+        engine.setListener(new GameEngine.Listener() {
+            @Override
+            public void onRowsChanged(int fromRow, int toRow) {
+                layer.rowsChanged(fromRow, toRow);
+            }
+        });
+        engine.newGame(10, 20, 1, pieces);
+    }
+
+    @Test
+    void testEmptyBoardHasGridLines() {
+        layer.update(engine);
+
+        assertEquals(Color.GRAY.getRGB(), pixel(0, 0));
+        assertEquals(Color.GRAY.getRGB(), pixel(BLOCK_SIZE, 5));
+        assertEquals(Color.WHITE.getRGB(), pixel(10, 10));
+    }
+
+    @Test
+    void testLockedAndClearedBlocksAreRedrawn() {
+        layer.update(engine);
+
+        // Lock a square into the bottom right corner
+        engine.setCurrentPiece(PieceRotation.of(BlockModel.ShapeType.SQUARE, 0));
+        engine.setCurrentX(8);
+        engine.setCurrentY(18);
+        engine.stopBlock();
+        layer.update(engine);
+
+        Color square = PieceRotation.of(BlockModel.ShapeType.SQUARE, 0).getColour();
+        assertEquals(square.getRGB(), pixel(8 * BLOCK_SIZE + 10, 19 * BLOCK_SIZE + 10));
+
+        // Complete the bottom rows around it, then clear them
+        boolean[][] board = new boolean[20][10];
+        for (int j = 0; j < 10; j++) {
+            board[19][j] = true;
+        }
+        engine.setBoard(board);
+        engine.checkCompletedRows();
+        layer.update(engine);
+
+        assertEquals(Color.WHITE.getRGB(), pixel(8 * BLOCK_SIZE + 10, 19 * BLOCK_SIZE + 10));
+        assertEquals(Color.GRAY.getRGB(), pixel(8 * BLOCK_SIZE, 19 * BLOCK_SIZE + 10));
+    }
+
+    @Test
+    void testTilesAreSharedPerColourAndSize() {
+        BufferedImage tile = BlockTiles.getTile(Color.RED, BLOCK_SIZE);
+
+        assertSame(tile, BlockTiles.getTile(Color.RED, BLOCK_SIZE));
+        assertNotSame(tile, BlockTiles.getTile(Color.RED, BLOCK_SIZE + 1));
+        assertEquals(BLOCK_SIZE + 1, tile.getWidth());
+        assertEquals(Color.RED.getRGB(), tile.getRGB(BLOCK_SIZE / 2, BLOCK_SIZE / 2));
+        assertEquals(Color.GRAY.getRGB(), tile.getRGB(BLOCK_SIZE, BLOCK_SIZE));
+    }
+
+    private int pixel(int x, int y) {
+        return layer.getImage().getRGB(x, y) | 0xFF000000;
+    }
+}
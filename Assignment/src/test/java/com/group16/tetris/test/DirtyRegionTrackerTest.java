@@ -0,0 +1,89 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.models.DirtyRegionTracker;
+import com.group16.tetris.models.GameEngine;
+import com.group16.tetris.models.PieceSequence;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirtyRegionTrackerTest {
+
+    private static final int BLOCK_SIZE = 20;
+    private static final int BOARD_X = 120;
+
+    private GameEngine engine;
+    private DirtyRegionTracker tracker;
+    private final List<Rectangle> repainted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        PieceSequence pieces = new PieceSequence(2805);
+        engine = new GameEngine(10, 20, 1, pieces);
+        tracker = new DirtyRegionTracker(BOARD_X, 0, 120, 406, BLOCK_SIZE, 10, 20);
+        engine.setListener(new GameEngine.Listener() {
+            @Override
+            public void onRowsChanged(int fromRow, int toRow) {
+                tracker.rowsChanged(fromRow, toRow);
+            }
+        });
+        engine.newGame(10, 20, 1, pieces);
+        engine.spawnBlock();
+    }
+
+    @Test
+    void testFirstRepaintCoversBoardAndInfo() {
+        repaintChanges();
+
+        assertTrue(repainted.stream().anyMatch(r -> r.contains(new Rectangle(BOARD_X, 0, 200, 400))));
+        assertTrue(repainted.stream().anyMatch(r -> r.contains(new Rectangle(0, 0, 120, 406))));
+    }
+
+    @Test
+    void testMovingBlockRepaintsOnlyItsOldAndNewBounds() {
+        repaintChanges();
+        repainted.clear();
+
+        assertTrue(engine.moveRight());
+        repaintChanges();
+
+        assertEquals(2, repainted.size());
+        Rectangle before = repainted.get(0);
+        Rectangle after = repainted.get(1);
+        assertEquals(BLOCK_SIZE, after.x - before.x);
+        assertTrue(before.width <= 4 * BLOCK_SIZE + 1);
+
+        // Nothing changed since, so nothing is repainted
+        repainted.clear();
+        repaintChanges();
+        assertTrue(repainted.isEmpty());
+    }
+
+    @Test
+    void testClearedRowsRepaintEverythingAbove() {
+        boolean[][] board = new boolean[20][10];
+        for (int j = 0; j < 10; j++) {
+            board[15][j] = true;
+        }
+        engine.setBoard(board);
+        repaintChanges();
+        repainted.clear();
+
+        engine.checkCompletedRows();
+        repaintChanges();
+
+        // Rows 0 to 15 moved down, and the score changed
+        assertTrue(repainted.contains(new Rectangle(BOARD_X, 0, 10 * BLOCK_SIZE + 1, 16 * BLOCK_SIZE + 1)));
+        assertTrue(repainted.contains(new Rectangle(0, 0, 120, 406)));
+    }
+
+    private void repaintChanges() {
+        tracker.repaintChanges(engine, false,
+                (x, y, width, height) -> repainted.add(new Rectangle(x, y, width, height)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.models.GameEngine;
+import com.group16.tetris.models.PieceSequence;
+import com.group16.tetris.services.TetrisAI;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEngineTest {
+
+    private GameEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        PieceSequence pieces = new PieceSequence(2805);
+        engine = new GameEngine(10, 20, 1, pieces);
+        engine.newGame(10, 20, 1, pieces);
+    }
+
+    @Test
+    void testCompletedRowsAreScored() {
+        boolean[][] board = new boolean[20][10];
+        for (int j = 0; j < 10; j++) {
+            board[18][j] = true;
+            board[19][j] = true;
+        }
+        board[17][4] = true;
+        engine.setBoard(board);
+
+        assertEquals(2, engine.checkCompletedRows());
+        assertEquals(300, engine.getScore());
+        assertEquals(2, engine.getDeletedRows());
+        assertTrue(engine.getBoard().isOccupied(4, 19));        // The row above drops down
+    }
+
+    @Test
+    void testSpawnEndsGameWhenBoardIsFull() {
+        boolean[][] board = new boolean[20][10];
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 9; j++) {
+                board[i][j] = true;
+            }
+        }
+        int[] gameOvers = new int[1];
+        engine.setListener(new GameEngine.Listener() {
+            @Override
+            public void onGameOver() {
+                gameOvers[0]++;
+            }
+        });
+        engine.setBoard(board);
+
+        engine.spawnBlock();
+        engine.endGame();                                                       // Already over, so not reported again
+
+        assertTrue(engine.isGameEnded());
+        assertEquals(1, gameOvers[0]);
+    }
+
+    @Test
+    void testHeadlessGameWithAIClearsRows() {
+        TetrisAI ai = new TetrisAI();
+        int[] spawned = new int[1];
+        engine.setListener(new GameEngine.Listener() {
+            @Override
+            public void onBlockSpawned() {
+                spawned[0]++;
+                int[] move = ai.findBestMove(engine.getBoard(), engine.getCurrentPiece());
+                engine.setTarget(move[2], move[1]);
+            }
+        });
+        engine.spawnBlock();
+
+        // Step the game without a timer until enough blocks have been placed
+        while (spawned[0] < 100 && !engine.isGameEnded()) {
+            engine.tick(true);
+        }
+
+        assertFalse(engine.isGameEnded());
+        assertTrue(engine.getDeletedRows() > 0);
+        assertTrue(engine.getScore() >= engine.getDeletedRows() * 100);
+    }
+}
@@ -0,0 +1,79 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.models.BlockModel;
+import com.group16.tetris.models.OpMove;
+import com.group16.tetris.models.PureGame;
+import com.group16.tetris.services.AsyncTetrisClient;
+import com.group16.tetris.services.GameEvents;
+import com.group16.tetris.services.TetrisClient;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventsTest {
+
+    @Test
+    void testGameEventIsRecorded() throws Exception {
+        List<RecordedEvent> events = record(GameEvents.LinesCleared.class, () -> {
+            GameEvents.LinesCleared event = new GameEvents.LinesCleared();
+            event.player = 2;
+            event.lines = 4;
+            event.commit();
+        });
+
+        assertEquals(1, events.size());
+        assertEquals(2, events.get(0).getInt("player"));
+        assertEquals(4, events.get(0).getInt("lines"));
+    }
+
+    @Test
+    void testUnansweredExternalRequestIsRecorded() throws Exception {
+        int closedPort;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            closedPort = serverSocket.getLocalPort();
+        }
+        AsyncTetrisClient client = new AsyncTetrisClient("localhost", closedPort);
+        PureGame game = new TetrisClient().createPureGame(10, 20, new boolean[20][10], new BlockModel(),
+                new BlockModel());
+
+        List<RecordedEvent> events = record(GameEvents.ExternalRequest.class, () -> {
+            try {
+                assertEquals(new OpMove(-1, -1), client.requestMove(game).get(5, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            } finally {
+                client.close();
+            }
+        });
+
+        assertEquals(1, events.size());
+        assertEquals("JSON", events.get(0).getString("wireFormat"));
+        assertTrue(events.get(0).getBoolean("defaultMove"));
+    }
+
+    // Runs the action with only the given event enabled, and returns the events it recorded
+    private List<RecordedEvent> record(Class<? extends jdk.jfr.Event> eventClass, Runnable action)
+            throws IOException {
+        Path file = Files.createTempFile("game-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventClass);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
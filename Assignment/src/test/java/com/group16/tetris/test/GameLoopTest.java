@@ -0,0 +1,87 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.services.GameLoop;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLoopTest {
+
+    private final AtomicInteger steps = new AtomicInteger();
+    private final CountDownLatch frames = new CountDownLatch(3);
+    private final GameLoop gameLoop = new GameLoop(new GameLoop.Simulation() {
+        @Override
+        public void step() {
+            steps.incrementAndGet();
+        }
+
+        @Override
+        public void render(double alpha) {
+            if (alpha >= 0 && alpha < 1 && SwingUtilities.isEventDispatchThread()) {
+                frames.countDown();
+            }
+        }
+    }, 10, 16);
+
+    @AfterEach
+    void tearDown() {
+        gameLoop.stop();
+    }
+
+    @Test
+    void testStepsAtAFixedRate() throws InterruptedException {
+        gameLoop.start();
+        Thread.sleep(500);
+        gameLoop.stop();
+
+        // About 50 steps of 10 ms, with room for a slow machine; a stall can't make it run ahead
+        int stepped = steps.get();
+        assertTrue(stepped >= 20 && stepped <= 55, "stepped " + stepped);
+    }
+
+    @Test
+    void testFramesAreRenderedOnTheSwingThread() throws InterruptedException {
+        gameLoop.start();
+
+        assertTrue(frames.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testActiveRenderingDrawsFramesOnTheLoopThread() throws Exception {
+        CompletableFuture<String> renderThread = new CompletableFuture<>();
+        GameLoop activeLoop = new GameLoop(new GameLoop.Simulation() {
+            @Override
+            public void step() {
+            }
+
+            @Override
+            public void render(double alpha) {
+                renderThread.complete(Thread.currentThread().getName());
+            }
+        }, 10, 16);
+        activeLoop.setRenderOnLoopThread(true);
+        activeLoop.start();
+        try {
+            assertTrue(renderThread.get(5, TimeUnit.SECONDS).startsWith("game-loop-"));
+        } finally {
+            activeLoop.stop();
+        }
+    }
+
+    @Test
+    void testInputRunsOnTheLoopThreadHoldingTheLock() throws Exception {
+        gameLoop.start();
+        CompletableFuture<Boolean> heldLock = new CompletableFuture<>();
+        gameLoop.post(() -> heldLock.complete(Thread.holdsLock(gameLoop.getLock())
+                && Thread.currentThread().getName().startsWith("game-loop-")));
+
+        assertTrue(heldLock.get(5, TimeUnit.SECONDS));
+    }
+}
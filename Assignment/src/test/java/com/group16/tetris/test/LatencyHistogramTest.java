@@ -0,0 +1,47 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.services.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (int i = 1; i <= 50; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(50, histogram.getCount());
+        assertEquals(25, histogram.getPercentileNanos(50));
+        assertEquals(50, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    void testPercentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000_000L);                                     // 1 ms to 1000 ms
+        }
+
+        assertEquals(500, histogram.getPercentileMillis(50), 500 * 0.04);
+        assertEquals(990, histogram.getPercentileMillis(99), 990 * 0.04);
+        assertEquals(1000, histogram.getMaxMillis(), 0.001);
+        assertEquals(500.5, histogram.getMeanMillis(), 0.001);
+    }
+
+    @Test
+    void testResetClearsCounts() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);                                                    // Clamped to zero
+        assertEquals(Long.MAX_VALUE, histogram.getPercentileNanos(100));
+
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(99));
+    }
+}
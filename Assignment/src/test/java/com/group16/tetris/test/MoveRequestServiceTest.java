@@ -0,0 +1,79 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.services.MoveRequestService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveRequestServiceTest {
+
+    private MoveRequestService moveRequestService;
+
+    @BeforeEach
+    void setUp() {
+        moveRequestService = new MoveRequestService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        moveRequestService.shutdown();
+    }
+
+    @Test
+    void testSubmitRunsRequestAndRecordsLatency() throws Exception {
+        CountDownLatch ran = new CountDownLatch(1);
+
+        moveRequestService.submit(1, ran::countDown).get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, ran.getCount());
+        assertEquals(1, moveRequestService.getCompletedRequests());
+        assertTrue(moveRequestService.getLastLatencyMillis() >= 0);
+        assertEquals(1, moveRequestService.getLatency().getCount());
+    }
+
+    @Test
+    void testNewRequestCancelsStaleRequestOfSamePlayer() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean staleRequestRan = new AtomicBoolean();
+
+        // Keep both workers busy so player 1's later requests wait in the queue
+        Runnable blockingRequest = () -> {
+            started.countDown();
+            awaitQuietly(release);
+        };
+        moveRequestService.submit(2, blockingRequest);
+        moveRequestService.submit(1, blockingRequest);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<?> stale = moveRequestService.submit(1, () -> staleRequestRan.set(true));
+        Future<?> current = moveRequestService.submit(1, () -> { });
+
+        assertTrue(stale.isCancelled());
+        assertFalse(current.isCancelled());
+        assertEquals(2, moveRequestService.getCancelledRequests());
+        assertTrue(moveRequestService.getQueueDepth() <= 1);
+
+        release.countDown();
+        current.get(5, TimeUnit.SECONDS);
+        assertFalse(staleRequestRan.get());
+    }
+
+    // Keeps the worker busy even when its request is cancelled, so queued requests stay in the queue
+    private void awaitQuietly(CountDownLatch latch) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (latch.getCount() > 0 && System.nanoTime() < deadline) {
+            try {
+                latch.await(10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // Cancelling interrupts the request, keep waiting
+            }
+        }
+    }
+}
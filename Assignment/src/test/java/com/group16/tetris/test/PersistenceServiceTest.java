@@ -0,0 +1,74 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.services.PersistenceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistenceServiceTest {
+
+    private final PersistenceService persistenceService = new PersistenceService();
+
+    @TempDir
+    Path temporaryDirectory;
+
+    @AfterEach
+    void tearDown() {
+        persistenceService.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testFlushWritesLatestContent() throws IOException {
+        Path file = temporaryDirectory.resolve("high_scores.json");
+        for (int i = 0; i < 100; i++) {
+            persistenceService.write(file.toString(), "[" + i + "]");
+        }
+
+        assertTrue(persistenceService.flush(5, TimeUnit.SECONDS));
+
+        assertEquals("[99]", Files.readString(file));
+        assertNull(persistenceService.getLastFailure());
+    }
+
+    @Test
+    void testWriteReplacesFileWithoutLeavingTemporaryFiles() throws IOException {
+        Path file = temporaryDirectory.resolve("configuration_settings.json");
+        Files.writeString(file, "{\"old\":true}");
+
+        persistenceService.write(file.toString(), "{\"old\":false}");
+        assertTrue(persistenceService.flush(5, TimeUnit.SECONDS));
+
+        assertEquals("{\"old\":false}", Files.readString(file));
+        try (Stream<Path> files = Files.list(temporaryDirectory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testFailedWriteIsReported() {
+        Path file = temporaryDirectory.resolve("missing").resolve("high_scores.json");
+
+        persistenceService.write(file.toString(), "[]");
+        assertTrue(persistenceService.flush(5, TimeUnit.SECONDS));
+
+        assertNotNull(persistenceService.getLastFailure());
+    }
+
+    @Test
+    void testWritesAfterShutdownHappenImmediately() throws IOException {
+        Path file = temporaryDirectory.resolve("high_scores.json");
+        persistenceService.shutdown(5, TimeUnit.SECONDS);
+
+        persistenceService.write(file.toString(), "[1]");
+
+        assertEquals("[1]", Files.readString(file));
+    }
+}
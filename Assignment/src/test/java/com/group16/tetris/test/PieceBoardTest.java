@@ -0,0 +1,68 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.models.BlockModel.ShapeType;
+import com.group16.tetris.models.PieceBoard;
+import com.group16.tetris.models.PieceRotation;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PieceBoardTest {
+
+    @Test
+    void testPlaceRecordsShapeOfEachCell() {
+        PieceBoard pieceBoard = new PieceBoard(10, 20);
+
+        pieceBoard.place(PieceRotation.of(ShapeType.SQUARE, 0), 3, 18);
+
+        assertEquals(ShapeType.SQUARE, pieceBoard.getShapeType(3, 18));
+        assertEquals(ShapeType.SQUARE, pieceBoard.getShapeType(4, 19));
+        assertEquals(Color.YELLOW, pieceBoard.getColour(4, 19));
+        assertNull(pieceBoard.getShapeType(5, 19));
+        assertNull(pieceBoard.getColour(2, 18));
+    }
+
+    @Test
+    void testRemoveRowShiftsRowsAboveDown() {
+        PieceBoard pieceBoard = new PieceBoard(10, 20);
+        pieceBoard.place(PieceRotation.of(ShapeType.STRAIGHT, 1), 0, 16);   // Vertical, rows 16 to 19
+        pieceBoard.place(PieceRotation.of(ShapeType.SQUARE, 0), 5, 18);
+
+        pieceBoard.removeRow(19);
+
+        assertEquals(ShapeType.STRAIGHT, pieceBoard.getShapeType(0, 19));
+        assertEquals(ShapeType.STRAIGHT, pieceBoard.getShapeType(0, 17));
+        assertNull(pieceBoard.getShapeType(0, 16));
+        assertEquals(ShapeType.SQUARE, pieceBoard.getShapeType(5, 19));
+        assertNull(pieceBoard.getShapeType(5, 18));
+
+        pieceBoard.clear();
+        assertNull(pieceBoard.getShapeType(0, 19));
+    }
+
+    @Test
+    void testRemoveRowsReusesClearedRowsAtTop() {
+        PieceBoard pieceBoard = new PieceBoard(4, 6);
+        pieceBoard.place(PieceRotation.of(ShapeType.STRAIGHT, 0), 0, 5);    // Row 5
+        pieceBoard.place(PieceRotation.of(ShapeType.SQUARE, 0), 1, 3);      // Rows 3 and 4
+        pieceBoard.place(PieceRotation.of(ShapeType.STRAIGHT, 0), 0, 2);    // Row 2
+
+        pieceBoard.removeRows(new int[]{2, 5}, 2);
+
+        assertEquals(ShapeType.SQUARE, pieceBoard.getShapeType(1, 5));
+        assertEquals(ShapeType.SQUARE, pieceBoard.getShapeType(2, 4));
+        assertNull(pieceBoard.getShapeType(0, 5));
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 4; x++) {
+                assertNull(pieceBoard.getShapeType(x, y));
+            }
+        }
+
+        // The reused rows can be filled again
+        pieceBoard.place(PieceRotation.of(ShapeType.STRAIGHT, 0), 0, 0);
+        assertEquals(ShapeType.STRAIGHT, pieceBoard.getShapeType(3, 0));
+        assertNull(pieceBoard.getShapeType(3, 1));
+    }
+}
@@ -0,0 +1,55 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.models.BlockModel;
+import com.group16.tetris.models.BlockModel.ShapeType;
+import com.group16.tetris.models.PieceRotation;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PieceRotationTest {
+
+    @Test
+    void testRotationsAreShared() {
+        for (ShapeType shapeType : ShapeType.values()) {
+            PieceRotation spawned = PieceRotation.of(shapeType, 0);
+            assertSame(spawned, PieceRotation.of(shapeType, 0));
+
+            // Four clockwise rotations come back to the same instance, matching BlockModel.nextShape
+            BlockModel block = new BlockModel(shapeType);
+            PieceRotation rotation = spawned;
+            for (int i = 0; i < 4; i++) {
+                assertSame(block.getBlockShape(), rotation.getShape());
+                block.nextShape();
+                rotation = rotation.next();
+            }
+            assertSame(spawned, rotation);
+        }
+    }
+
+    @Test
+    void testCellOffsetsMatchShape() {
+        PieceRotation lShape = PieceRotation.of(ShapeType.L_SHAPE, 1);
+
+        assertEquals(2, lShape.getWidth());
+        assertEquals(3, lShape.getHeight());
+        assertEquals(4, lShape.getCellCount());
+        for (int cell = 0; cell < lShape.getCellCount(); cell++) {
+            assertTrue(lShape.getShape()[lShape.getCellY(cell)][lShape.getCellX(cell)]);
+        }
+        assertEquals(0, lShape.getColumnBottom(0));
+        assertEquals(2, lShape.getColumnBottom(1));
+    }
+
+    @Test
+    void testBlockWithCopiedCellsMatchesRotation() {
+        BlockModel block = new BlockModel(ShapeType.SQUARE);
+        block.setBlockShape(new boolean[][]{
+                {false, true},
+                {false, true},
+                {true, true}
+        }, 0);
+
+        assertSame(PieceRotation.of(ShapeType.REVERSE_L_SHAPE, 1), PieceRotation.of(block));
+    }
+}
@@ -0,0 +1,60 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.models.BlockModel;
+import com.group16.tetris.models.BlockModel.ShapeType;
+import com.group16.tetris.models.PieceSequence;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PieceSequenceTest {
+
+    @Test
+    void testSameSeedDealsSameShapes() {
+        PieceSequence player1 = new PieceSequence(16);
+        PieceSequence player2 = new PieceSequence(16);
+
+        // Player 1 previews ahead and gets further into the game than player 2, which must not change player 2's shapes
+        for (int i = 0; i < 200; i++) {
+            player1.peek(PieceSequence.MAX_PREVIEW - 1);
+            assertEquals(player1.peek(0), player1.next());
+        }
+        PieceSequence replay = new PieceSequence(16);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(replay.next(), player2.next());
+        }
+    }
+
+    @Test
+    void testUniformMatchesRandomBlocks() {
+        PieceSequence pieces = new PieceSequence(42);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(new BlockModel(random).getShapeType(), pieces.next());
+        }
+    }
+
+    @Test
+    void testBagDealsEveryShapeOnce() {
+        PieceSequence pieces = new PieceSequence(7, PieceSequence.Distribution.BAG);
+
+        for (int bag = 0; bag < 50; bag++) {
+            Set<ShapeType> dealt = EnumSet.noneOf(ShapeType.class);
+            for (int i = 0; i < ShapeType.values().length; i++) {
+                assertTrue(dealt.add(pieces.next()));
+            }
+        }
+    }
+
+    @Test
+    void testPreviewIsLimited() {
+        PieceSequence pieces = new PieceSequence(1);
+
+        assertThrows(IllegalArgumentException.class, () -> pieces.peek(PieceSequence.MAX_PREVIEW));
+    }
+}
@@ -0,0 +1,48 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.models.SelfPlayResult;
+import com.group16.tetris.services.SelfPlayRunner;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfPlayRunnerTest {
+
+    private final SelfPlayRunner runner = new SelfPlayRunner(10, 20, 1, 100, false);
+
+    @Test
+    void testSameSeedPlaysSameGame() {
+        SelfPlayResult first = runner.playGame(42);
+        SelfPlayResult second = runner.playGame(42);
+
+        assertEquals(first, second);
+        assertTrue(first.piecesPlaced() > 0);
+        assertTrue(first.piecesPlaced() <= 100);
+    }
+
+    @Test
+    void testParallelGamesMatchSingleGamesInSeedOrder() throws InterruptedException {
+        List<SelfPlayResult> results = runner.playGames(7, 4, 2);
+
+        assertEquals(4, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(runner.playGame(7 + i), results.get(i));
+        }
+    }
+
+    @Test
+    void testSameSeedPlaysSameLookaheadGameWhileCoresAreBusy() throws InterruptedException {
+        SelfPlayRunner lookaheadRunner = new SelfPlayRunner(10, 20, 1, 100, true);
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        // Games on every core compete for time, which must not cut their searches short
+        List<SelfPlayResult> results = lookaheadRunner.playGames(42, 2 * threads, threads);
+
+        assertEquals(lookaheadRunner.playGame(42), lookaheadRunner.playGame(42));
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(lookaheadRunner.playGame(42 + i), results.get(i));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.group16.tetris.test;
+
+import com.group16.tetris.models.BitBoard;
+import com.group16.tetris.models.BlockModel;
+import com.group16.tetris.services.TetrisAI;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TetrisAITest {
+
+    private TetrisAI tetrisAI;
+
+    @BeforeEach
+    void setUp() {
+        tetrisAI = new TetrisAI();
+    }
+
+    @Test
+    void testScanBoardPrefersCompletingARow() {
+        // Bottom row is full apart from the last four columns
+        boolean[][] board = new boolean[20][10];
+        for (int x = 0; x < 6; x++) {
+            board[19][x] = true;
+        }
+        BlockModel straight = new BlockModel();
+        straight.setBlockShape(BlockModel.SHAPES[0][0], BlockModel.ShapeType.STRAIGHT, 0);
+
+        int[] move = tetrisAI.scanBoard(board, straight);
+
+        assertEquals(0, move[1]);
+        assertEquals(6, move[2]);
+        assertEquals(19, move[3]);
+    }
+
+    @Test
+    void testFindBestMoveMatchesScanBoard() {
+        Random random = new Random(2805);
+        for (int i = 0; i < 500; i++) {
+            int width = 5 + random.nextInt(11);
+            int height = 15 + random.nextInt(16);
+            boolean[][] board = createBoard(random, width, height, i % 2 == 0);
+
+            BlockModel block = new BlockModel();
+            for (int rotation = random.nextInt(4); rotation > 0; rotation--) {
+                block.setBlockShape(block.nextShape());
+            }
+
+            // Both searches must agree on the score, rotation and position, including how ties are broken
+            assertArrayEquals(tetrisAI.scanBoard(board, block),
+                    tetrisAI.findBestMove(BitBoard.fromArray(board), block));
+        }
+    }
+
+    @Test
+    void testParallelSearchMatchesSequentialSearch() {
+        TetrisAI parallelAI = new TetrisAI(TetrisAI.SearchMode.PARALLEL);
+        TetrisAI sequentialAI = new TetrisAI(TetrisAI.SearchMode.SEQUENTIAL);
+        Random random = new Random(2805);
+        for (int i = 0; i < 200; i++) {
+            BitBoard board = BitBoard.fromArray(createBoard(random, 5 + random.nextInt(20), 20, i % 2 == 0));
+            BlockModel block = new BlockModel();
+
+            // Splitting the search must not change which of several equal placements is chosen
+            assertArrayEquals(sequentialAI.findBestMove(board, block), parallelAI.findBestMove(board, block));
+        }
+    }
+
+    @Test
+    void testLookaheadReturnsValidPlacement() {
+        Random random = new Random(42);
+        boolean[][] board = createBoard(random, 10, 20, true);
+        BitBoard bitBoard = BitBoard.fromArray(board);
+        BlockModel block = new BlockModel();
+        BlockModel nextBlock = new BlockModel();
+
+        int[] move = tetrisAI.findBestMoveWithLookahead(bitBoard, block, nextBlock);
+
+        // The chosen first placement must be one the single-block search considers valid
+        boolean[][] shape = block.getBlockShape();
+        for (int rotation = 0; rotation < move[1]; rotation++) {
+            shape = tetrisAI.rotateShape(shape);
+        }
+        assertTrue(tetrisAI.isValidPlacement(board, shape, move[2], move[3]));
+    }
+
+    @Test
+    void testLookaheadWithoutNextBlockMatchesFindBestMove() {
+        BitBoard bitBoard = BitBoard.fromArray(createBoard(new Random(7), 10, 20, false));
+        BlockModel block = new BlockModel();
+
+        assertArrayEquals(tetrisAI.findBestMove(bitBoard, block),
+                tetrisAI.findBestMoveWithLookahead(bitBoard, block, null));
+    }
+
+    @Test
+    void testScanDoesNotModifyBoard() {
+        boolean[][] board = createBoard(new Random(16), 10, 20, true);
+        BitBoard bitBoard = BitBoard.fromArray(board);
+
+        tetrisAI.findBestMove(bitBoard, new BlockModel());
+        tetrisAI.scanBoard(bitBoard, new BlockModel());
+
+        assertArrayEquals(board, bitBoard.toArray());
+    }
+
+    // Creates a board with random stacks, optionally leaving holes underneath the surface
+    private boolean[][] createBoard(Random random, int width, int height, boolean withHoles) {
+        boolean[][] board = new boolean[height][width];
+        for (int x = 0; x < width; x++) {
+            int stackHeight = random.nextInt(height / 2);
+            for (int y = height - stackHeight; y < height; y++) {
+                board[y][x] = !withHoles || random.nextInt(5) > 0;
+            }
+        }
+        return board;
+    }
+}